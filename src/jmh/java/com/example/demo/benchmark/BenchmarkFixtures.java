@@ -0,0 +1,32 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.User;
+import com.example.demo.util.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Shared setup for benchmarks; builds components the same way Spring would, without a context.
+ */
+final class BenchmarkFixtures {
+    
+    static final String SECRET = "mySecretKeyForJWTTokenGenerationThatShouldBeAtLeast256BitsLong";
+    
+    private BenchmarkFixtures() {
+    }
+    
+    static JwtUtil jwtUtil(int verifyCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheSize", verifyCacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+    
+    static User user() {
+        User user = new User("benchuser", "bench@example.com", "{bcrypt}unused");
+        user.setId(1L);
+        user.setRole(User.Role.USER);
+        return user;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.User;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.security.RoleAuthorityResolver;
+import com.example.demo.service.UserService;
+import com.example.demo.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full JwtAuthenticationFilter pass against a no-op chain.
+ * The user lookup is stubbed in memory, so this measures filter overhead, not the database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean stateless;
+    
+    @Param({"0", "4096"})
+    public int verifyCacheSize;
+    
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+    
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil(verifyCacheSize);
+        User user = BenchmarkFixtures.user();
+        UserService userService = new UserService(null, null, null, null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        };
+        
+        filter = new JwtAuthenticationFilter(jwtUtil, userService,
+                new RoleAuthorityResolver(new MockEnvironment()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+        
+        request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(user));
+        response = new MockHttpServletResponse();
+    }
+    
+    @Benchmark
+    public Object doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of one signed-token parse, with and without JwtUtil's cached key and parser.
+ * Run with the GC profiler (the build default) and compare {@code gc.alloc.rate.norm}:
+ * {@code cachedParser} goes through JwtUtil, {@code legacyParse} rebuilds the key and parser
+ * per call as JwtUtil did before they were cached. The verified-token cache is off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtParseBenchmark {
+    
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(0);
+        token = jwtUtil.generateToken(BenchmarkFixtures.user());
+    }
+    
+    @Benchmark
+    public Claims cachedParser() {
+        return jwtUtil.extractClaim(token, Function.identity());
+    }
+    
+    @Benchmark
+    public Claims legacyParse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(BenchmarkFixtures.SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
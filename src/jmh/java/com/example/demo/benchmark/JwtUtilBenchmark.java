@@ -0,0 +1,53 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.User;
+import com.example.demo.util.JwtUtil;
+import com.example.demo.util.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and verification throughput.
+ * The cached against per-call parser comparison is in {@link JwtParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtUtilBenchmark {
+    
+    @Param({"0", "4096"})
+    public int verifyCacheSize;
+    
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkFixtures.jwtUtil(verifyCacheSize);
+        user = BenchmarkFixtures.user();
+        token = jwtUtil.generateToken(user);
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+    
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+    
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+    
+    @Benchmark
+    public Optional<VerifiedToken> verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+}
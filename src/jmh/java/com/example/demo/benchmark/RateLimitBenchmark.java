@@ -0,0 +1,78 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.User;
+import com.example.demo.security.RateLimitFilter;
+import com.example.demo.util.TokenBucketStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the per-user rate limiter on the allowed path.
+ * The quota is effectively unlimited so every call is allowed; compare
+ * {@code tryConsume} and {@code doFilter} against a no-op chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitBenchmark {
+    
+    @Param({"1", "10000"})
+    public int users;
+    
+    private TokenBucketStore store;
+    private TokenBucketStore.Quota quota;
+    private String[] keys;
+    private RateLimitFilter filter;
+    private UsernamePasswordAuthenticationToken authentication;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+    
+    @Setup
+    public void setUp() {
+        store = new TokenBucketStore(65536);
+        quota = TokenBucketStore.Quota.perSecond(Integer.MAX_VALUE / 2, 1e9);
+        keys = new String[users];
+        for (int i = 0; i < users; i++) {
+            keys[i] = "user" + i;
+        }
+        
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("api.rate-limit.roles.user.capacity", String.valueOf(Integer.MAX_VALUE / 2))
+                .withProperty("api.rate-limit.roles.user.refill-per-second", "1e9");
+        filter = new RateLimitFilter(environment, new SimpleMeterRegistry(), true, 65536);
+        User user = BenchmarkFixtures.user();
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        request = new MockHttpServletRequest("GET", "/api/users/profile");
+        response = new MockHttpServletResponse();
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public long tryConsume(Cursor cursor) {
+        String key = keys[cursor.next++ % keys.length];
+        return store.tryConsume(key, quota, System.nanoTime());
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public Object doFilter() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+}
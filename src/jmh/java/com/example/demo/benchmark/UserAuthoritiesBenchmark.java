@@ -0,0 +1,33 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.User;
+import com.example.demo.security.RoleAuthorityResolver;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving a user's authorities, which the JWT filter does on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserAuthoritiesBenchmark {
+    
+    private User user;
+    private RoleAuthorityResolver roleAuthorities;
+    
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user();
+        roleAuthorities = new RoleAuthorityResolver(new MockEnvironment()
+                .withProperty("security.roles.admin.includes", "USER"));
+    }
+    
+    @Benchmark
+    public Collection<?> getAuthorities() {
+        return roleAuthorities.getAuthorities(user);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Username-or-email lookup against a large users table: the former single OR query
+ * versus routing the input to one unique index. Setup logs the query plans and fails
+ * if a routed query does not use its index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserLookupBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLookupBenchmark.class);
+
+    private static final String OR_QUERY =
+            "SELECT id FROM users WHERE username = ? OR email = ?";
+    private static final String USERNAME_QUERY =
+            "SELECT id FROM users WHERE username_normalized = ?";
+    private static final String EMAIL_QUERY =
+            "SELECT id FROM users WHERE email_normalized = ?";
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement orQuery;
+    private PreparedStatement usernameQuery;
+    private PreparedStatement emailQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:file:./build/jmh-h2/users-" + rows, "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS users (" +
+                    "id BIGINT PRIMARY KEY, " +
+                    "username VARCHAR(50) NOT NULL UNIQUE, " +
+                    "email VARCHAR(100) NOT NULL UNIQUE, " +
+                    "username_normalized VARCHAR(50) NOT NULL UNIQUE, " +
+                    "email_normalized VARCHAR(100) NOT NULL UNIQUE)");
+            try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+                count.next();
+                if (count.getLong(1) < rows) {
+                    populate(count.getLong(1));
+                }
+            }
+        }
+
+        orQuery = connection.prepareStatement(OR_QUERY);
+        usernameQuery = connection.prepareStatement(USERNAME_QUERY);
+        emailQuery = connection.prepareStatement(EMAIL_QUERY);
+
+        explain(OR_QUERY.replace("?", "'user1'"));
+        requireIndexLookup(explain(USERNAME_QUERY.replace("?", "'user1'")));
+        requireIndexLookup(explain(EMAIL_QUERY.replace("?", "'user1@example.com'")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long orByUsername() throws SQLException {
+        String username = randomUsername();
+        orQuery.setString(1, username);
+        orQuery.setString(2, username);
+        return firstId(orQuery);
+    }
+
+    @Benchmark
+    public long orByEmail() throws SQLException {
+        String email = randomUsername() + "@example.com";
+        orQuery.setString(1, email);
+        orQuery.setString(2, email);
+        return firstId(orQuery);
+    }
+
+    @Benchmark
+    public long splitByUsername() throws SQLException {
+        return lookup(randomUsername());
+    }
+
+    @Benchmark
+    public long splitByEmail() throws SQLException {
+        return lookup(randomUsername() + "@example.com");
+    }
+
+    /**
+     * Mirrors UserService: inputs containing '@' go to the email index, everything else to the username index.
+     */
+    private long lookup(String usernameOrEmail) throws SQLException {
+        String normalized = usernameOrEmail.toLowerCase(Locale.ROOT);
+        PreparedStatement query = normalized.indexOf('@') >= 0 ? emailQuery : usernameQuery;
+        query.setString(1, normalized);
+        return firstId(query);
+    }
+
+    private String randomUsername() {
+        return "User" + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    private static long firstId(PreparedStatement query) throws SQLException {
+        try (ResultSet resultSet = query.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    private void populate(long from) throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, username, email, username_normalized, email_normalized) VALUES (?, ?, ?, ?, ?)")) {
+            for (long i = from; i < rows; i++) {
+                String username = "User" + i;
+                String email = username + "@example.com";
+                insert.setLong(1, i);
+                insert.setString(2, username);
+                insert.setString(3, email);
+                insert.setString(4, username.toLowerCase(Locale.ROOT));
+                insert.setString(5, email.toLowerCase(Locale.ROOT));
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+            plan.next();
+            String text = plan.getString(1);
+            log.info("Plan for {}:\n{}", sql, text);
+            return text;
+        }
+    }
+
+    private static void requireIndexLookup(String plan) {
+        if (plan.contains(".tableScan")) {
+            throw new IllegalStateException("Expected an index lookup, got:\n" + plan);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.config;
+
+import com.example.demo.security.TokenRevocationRegistry;
+import com.example.demo.service.AvailabilityService;
+import com.example.demo.service.RefreshTokenService;
+import com.example.demo.service.RegisteredNamesFilter;
+import com.example.demo.service.UserDetailsCache;
+import com.example.demo.util.JwtUtil;
+import com.example.demo.util.TokenPrecheck;
+import com.example.demo.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the in-memory cache and name filter counters as Micrometer meters.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Autowired
+    public MetricsConfig(MeterRegistry meterRegistry, UserDetailsCache userDetailsCache, JwtUtil jwtUtil,
+                         RegisteredNamesFilter registeredNames, AvailabilityService availabilityService,
+                         RefreshTokenService refreshTokenService, TokenRevocationRegistry revocationRegistry) {
+        for (String counter : new String[] {"hits", "misses", "evictions"}) {
+            FunctionCounter.builder("user.cache." + counter, userDetailsCache,
+                            cache -> cache.getStats().get(counter))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("user.cache.size", userDetailsCache, cache -> cache.getStats().get("size"))
+                .register(meterRegistry);
+        
+        VerifiedTokenCache tokenCache = jwtUtil.getVerifiedTokenCache();
+        if (tokenCache != null) {
+            FunctionCounter.builder("jwt.verify.cache.hits", tokenCache, VerifiedTokenCache::getHits)
+                    .register(meterRegistry);
+            FunctionCounter.builder("jwt.verify.cache.misses", tokenCache, VerifiedTokenCache::getMisses)
+                    .register(meterRegistry);
+        }
+        
+        for (TokenPrecheck.Rejection rejection : TokenPrecheck.Rejection.values()) {
+            FunctionCounter.builder("jwt.precheck.rejections", jwtUtil, util -> util.getPrecheckRejections(rejection))
+                    .tag("reason", rejection.tag())
+                    .register(meterRegistry);
+        }
+        
+        Gauge.builder("jwt.revocations", revocationRegistry, TokenRevocationRegistry::getRevokedTokenCount)
+                .tag("kind", "token")
+                .register(meterRegistry);
+        Gauge.builder("jwt.revocations", revocationRegistry, TokenRevocationRegistry::getRevokedUserCount)
+                .tag("kind", "user")
+                .register(meterRegistry);
+        
+        FunctionCounter.builder("refresh.cache.hits", refreshTokenService, RefreshTokenService::getCacheHits)
+                .register(meterRegistry);
+        FunctionCounter.builder("refresh.cache.misses", refreshTokenService, RefreshTokenService::getCacheMisses)
+                .register(meterRegistry);
+        Gauge.builder("refresh.cache.size", refreshTokenService, RefreshTokenService::getCacheSize)
+                .register(meterRegistry);
+        
+        FunctionCounter.builder("user.availability.checks", availabilityService, AvailabilityService::getFilteredCount)
+                .tag("result", "filtered")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.availability.checks", availabilityService, AvailabilityService::getFalsePositiveCount)
+                .tag("result", "false_positive")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.availability.checks", availabilityService, AvailabilityService::getTakenCount)
+                .tag("result", "taken")
+                .register(meterRegistry);
+        Gauge.builder("user.availability.false_positive_rate", availabilityService,
+                        AvailabilityService::getObservedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("user.names.filter.expected_fpp", registeredNames,
+                        RegisteredNamesFilter::getUsernameFalsePositiveRate)
+                .tag("field", "username")
+                .register(meterRegistry);
+        Gauge.builder("user.names.filter.expected_fpp", registeredNames,
+                        RegisteredNamesFilter::getEmailFalsePositiveRate)
+                .tag("field", "email")
+                .register(meterRegistry);
+        Gauge.builder("user.names.filter.memory", registeredNames, RegisteredNamesFilter::getMemoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+}
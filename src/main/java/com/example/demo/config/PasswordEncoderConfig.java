@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import com.example.demo.security.BCryptStrengthCalibrator;
+import com.example.demo.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Password hashing configuration.
+ * Kept separate from SecurityConfig so UserService can depend on the encoder
+ * without pulling in the security filter chain.
+ */
+@Configuration
+public class PasswordEncoderConfig {
+    
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    
+    /**
+     * Password encoder bean for encoding user passwords.
+     * New hashes are prefixed with the algorithm id; unprefixed legacy BCrypt hashes
+     * still match and are reported as needing an upgrade so they are rehashed on login.
+     * Hashing runs on a bounded pool so login bursts cannot occupy every request thread.
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${password.hashing.threads:0}") int threads,
+            @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password.hashing.algorithm:bcrypt}") String algorithm,
+            @Value("${password.hashing.bcrypt-strength:0}") int bcryptStrength,
+            @Value("${password.hashing.target-ms:100}") long targetMillis,
+            MeterRegistry meterRegistry) {
+        int strength = bcryptStrength > 0 ? bcryptStrength : BCryptStrengthCalibrator.calibrate(targetMillis);
+        log.info("Using BCrypt strength {} for new password hashes", strength);
+        
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, meterRegistry);
+    }
+}
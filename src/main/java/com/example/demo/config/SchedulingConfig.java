@@ -0,0 +1,12 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods, such as signing key rotation and reload.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,82 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Checks for the virtual-threads profile.
+ * Spring Boot silently keeps platform threads on runtimes older than Java 21, so warn loudly.
+ * BCrypt stays on the bounded platform-thread pool (see PasswordEncoderConfig), so CPU-heavy
+ * hashing never occupies a carrier thread.
+ * JDBC pinning is not mitigated: H2 and Hibernate block inside synchronized code, which pins the
+ * carrier on Java 21 to 23. The Hikari pool bounds how many carriers can be pinned at once, so it
+ * is sized one below the carrier count unless configured, and a configured size that leaves no
+ * carrier free fails startup.
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+    
+    static final String POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+    
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+    
+    @PostConstruct
+    public void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("virtual-threads profile is active but the runtime is Java {}; "
+                    + "requests will run on platform threads. Use Java 21 or newer.", feature);
+        } else {
+            log.info("Serving requests on virtual threads (Java {})", feature);
+        }
+    }
+    
+    /**
+     * Size the JDBC pool against the carrier threads once Hikari is bound, before its first connection.
+     * Static so the post-processor exists before the DataSource is created.
+     */
+    @Bean
+    public static BeanPostProcessor jdbcPoolSizer(Environment environment) {
+        if (Runtime.version().feature() < 21) {
+            return new BeanPostProcessor() {};
+        }
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        int poolSize = resolvePoolSize(environment.getProperty(POOL_SIZE_PROPERTY, Integer.class), carriers);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    hikari.setMaximumPoolSize(poolSize);
+                    log.info("JDBC pool size {} for {} carrier threads", poolSize, carriers);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    /**
+     * @param configured pool size set for this deployment, or null
+     * @param carriers virtual-thread carrier count
+     * @return pool size that leaves at least one carrier unpinned when there is more than one
+     * @throws IllegalStateException if the configured size would let JDBC pin every carrier
+     */
+    static int resolvePoolSize(Integer configured, int carriers) {
+        if (configured == null) {
+            return Math.max(1, carriers - 1);
+        }
+        if (configured < 1 || (carriers > 1 && configured >= carriers)) {
+            throw new IllegalStateException(POOL_SIZE_PROPERTY + "=" + configured + " must be between 1 and "
+                    + (carriers - 1) + " with " + carriers + " carrier threads; JDBC calls pin their carrier");
+        }
+        return configured;
+    }
+}
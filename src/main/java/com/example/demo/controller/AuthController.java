@@ -3,19 +3,32 @@ package com.example.demo.controller;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.AuthResponse;
 import com.example.demo.dto.LoginRequest;
+import com.example.demo.dto.RefreshTokenRequest;
 import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.TokenBatchRequest;
+import com.example.demo.dto.TokenValidationResult;
+import com.example.demo.security.LoginThrottledException;
+import com.example.demo.security.PasswordHashingBusyException;
 import com.example.demo.service.AuthService;
+import com.example.demo.service.RefreshTokenException;
+import com.example.demo.service.TokenBatchTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST Controller for authentication endpoints.
- * Handles user registration, login, and token validation.
+ * Handles user registration, login, token refresh, logout and token validation.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AuthController {
@@ -30,13 +43,21 @@ public class AuthController {
     /**
      * User login endpoint.
      * @param loginRequest login credentials
+     * @param request servlet request, for the client address used in throttling
      * @return JWT token and user information
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                           HttpServletRequest request) {
         try {
-            AuthResponse authResponse = authService.login(loginRequest);
+            AuthResponse authResponse = authService.login(loginRequest, request.getRemoteAddr());
             return ResponseEntity.ok(ApiResponse.success("Login successful", authResponse));
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (PasswordHashingBusyException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Login failed: " + e.getMessage()));
@@ -54,12 +75,49 @@ public class AuthController {
             AuthResponse authResponse = authService.register(registerRequest);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Registration successful", authResponse));
+        } catch (PasswordHashingBusyException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error("Registration failed: " + e.getMessage()));
         }
     }
     
+    /**
+     * Token refresh endpoint.
+     * Consumes the refresh token and returns a new access token and refresh token.
+     * @param refreshRequest the current refresh token
+     * @return new JWT token, refresh token and user information
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            AuthResponse authResponse = authService.refreshToken(refreshRequest.getRefreshToken());
+            return ResponseEntity.ok(ApiResponse.success("Token refreshed", authResponse));
+        } catch (RefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Token refresh failed: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Logout endpoint.
+     * Revokes the refresh token and every token rotated from the same login,
+     * and the access token from the Authorization header when one is sent.
+     * @param authorization optional bearer access token
+     * @param refreshRequest the current refresh token
+     * @return logout result
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(refreshRequest.getRefreshToken(), accessToken);
+        return ResponseEntity.ok(ApiResponse.success("Logged out"));
+    }
+    
     /**
      * Token validation endpoint.
      * @param token JWT token to validate
@@ -81,6 +139,25 @@ public class AuthController {
         }
     }
     
+    /**
+     * Batch token validation endpoint.
+     * Always answers 200 with one result per token, in request order; an invalid
+     * token is a per-item result, not a request failure.
+     * @param batchRequest tokens to validate
+     * @return per-token validity, subject, expiry and rejection reason
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<ApiResponse<List<TokenValidationResult>>> validateTokens(
+            @Valid @RequestBody TokenBatchRequest batchRequest) {
+        try {
+            List<TokenValidationResult> results = authService.validateTokens(batchRequest.getTokens());
+            return ResponseEntity.ok(ApiResponse.success("Tokens validated", results));
+        } catch (TokenBatchTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     /**
      * Get current user information from token.
      * @param token JWT token
@@ -97,4 +174,13 @@ public class AuthController {
                     .body(ApiResponse.error("Failed to get user: " + e.getMessage()));
         }
     }
+    
+    /**
+     * Build a 503 response telling the client to back off briefly.
+     */
+    private <T> ResponseEntity<ApiResponse<T>> serviceBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(e.getMessage()));
+    }
 }
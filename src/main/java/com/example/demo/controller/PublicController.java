@@ -0,0 +1,72 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.service.AvailabilityService;
+import com.example.demo.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller for unauthenticated helper endpoints.
+ */
+@RestController
+@RequestMapping("/api/public")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class PublicController {
+
+    private final AvailabilityService availabilityService;
+    private final JwtUtil jwtUtil;
+
+    @Autowired
+    public PublicController(AvailabilityService availabilityService, JwtUtil jwtUtil) {
+        this.availabilityService = availabilityService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * Check whether a username and/or email can still be registered.
+     * Cheap enough to call on every keystroke of the signup form.
+     * @param username optional username to check
+     * @param email optional email to check
+     * @return availability per requested field
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<Map<String, Boolean>>> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Provide a username or email to check"));
+        }
+
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (username != null && !username.isBlank()) {
+            availability.put("username", availabilityService.isUsernameAvailable(username.trim()));
+        }
+        if (email != null && !email.isBlank()) {
+            availability.put("email", availabilityService.isEmailAvailable(email.trim()));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Availability checked", availability));
+    }
+
+    /**
+     * Publish the token verification keys so other services can verify tokens locally.
+     * Served without the ApiResponse envelope, as standard JWKS clients expect.
+     * @return JSON Web Key Set, or 404 when tokens are signed with a shared HMAC secret
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return jwtUtil.getJwks()
+                .map(jwks -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                        .body(jwks))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
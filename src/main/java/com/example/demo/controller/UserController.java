@@ -1,31 +1,49 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UserFilter;
+import com.example.demo.dto.UserImportResult;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.entity.User;
+import com.example.demo.service.UserExportService;
+import com.example.demo.service.UserImportService;
 import com.example.demo.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for user management endpoints.
  * Provides protected routes for user operations.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class UserController {
     
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                         UserImportService userImportService,
+                         UserExportService userExportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
     }
     
     /**
@@ -33,12 +51,12 @@ public class UserController {
      * @return current user information
      */
     @GetMapping("/profile")
-    public ResponseEntity<ApiResponse<User>> getCurrentUserProfile() {
+    public ResponseEntity<ApiResponse<UserSummary>> getCurrentUserProfile() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String username = authentication.getName();
             
-            User user = userService.findByUsernameOrEmail(username)
+            UserSummary user = userService.findSummaryByUsername(username)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
             return ResponseEntity.ok(ApiResponse.success("Profile retrieved successfully", user));
@@ -48,15 +66,51 @@ public class UserController {
         }
     }
     
+    /**
+     * List users with keyset pagination and optional filters (Admin only).
+     * @param filter optional role, enabled, createdFrom and createdTo filters
+     * @param after cursor returned by the previous page
+     * @param limit page size (max 500)
+     * @return one page of users and the cursor for the next page
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<UserSummary>>> listUsers(UserFilter filter,
+                                                                       @RequestParam(required = false) Long after,
+                                                                       @RequestParam(defaultValue = "50") int limit) {
+        try {
+            CursorPage<UserSummary> page = userService.listUsers(filter, after, limit);
+            return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", page));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to get users: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Stream all matching users as newline-delimited JSON (Admin only).
+     * @param filter optional role, enabled, createdFrom and createdTo filters
+     * @return streamed NDJSON body
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(UserFilter filter) {
+        StreamingResponseBody body = out -> userExportService.exportUsers(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     /**
      * Get all users (Admin only).
+     * Loads the whole table; prefer the paginated listing or the export for large user bases.
      * @return list of all users
      */
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<User>>> getAllUsers() {
+    public ResponseEntity<ApiResponse<List<UserSummary>>> getAllUsers() {
         try {
-            List<User> users = userService.getAllUsers();
+            List<UserSummary> users = userService.getAllUserSummaries();
             return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", users));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -64,6 +118,38 @@ public class UserController {
         }
     }
     
+    /**
+     * Bulk import users from a streamed CSV or NDJSON body (Admin only).
+     * @param request request whose body holds one user per line
+     * @return counts of imported and rejected lines, with the first row errors
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<UserImportResult>> importUsers(HttpServletRequest request) {
+        try {
+            UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                    .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    ? UserImportService.Format.NDJSON
+                    : UserImportService.Format.CSV;
+            UserImportResult result = userImportService.importUsers(request.getInputStream(), format);
+            return ResponseEntity.ok(ApiResponse.success("Users imported", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to import users: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get user cache statistics (Admin only).
+     * @return cache hit, miss, eviction and size counters
+     */
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUserCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("Cache statistics retrieved successfully",
+                userService.getUserCacheStats()));
+    }
+    
     /**
      * Get user by ID (Admin only).
      * @param id user ID
@@ -71,9 +157,9 @@ public class UserController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<UserSummary>> getUserById(@PathVariable Long id) {
         try {
-            User user = userService.findById(id)
+            UserSummary user = userService.findSummaryById(id)
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
             return ResponseEntity.ok(ApiResponse.success("User retrieved successfully", user));
@@ -91,17 +177,34 @@ public class UserController {
      */
     @PutMapping("/{id}/enabled")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<User>> setUserEnabled(@PathVariable Long id, @RequestParam boolean enabled) {
+    public ResponseEntity<ApiResponse<UserSummary>> setUserEnabled(@PathVariable Long id, @RequestParam boolean enabled) {
         try {
             User user = userService.setUserEnabled(id, enabled);
             String message = enabled ? "User enabled successfully" : "User disabled successfully";
-            return ResponseEntity.ok(ApiResponse.success(message, user));
+            return ResponseEntity.ok(ApiResponse.success(message, UserSummary.from(user)));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to update user: " + e.getMessage()));
         }
     }
     
+    /**
+     * Revoke every token issued to a user (Admin only).
+     * @param id user ID
+     * @return updated user
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<UserSummary>> revokeTokens(@PathVariable Long id) {
+        try {
+            User user = userService.revokeAllTokens(id);
+            return ResponseEntity.ok(ApiResponse.success("Tokens revoked successfully", UserSummary.from(user)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to revoke tokens: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Delete user (Admin only).
      * @param id user ID
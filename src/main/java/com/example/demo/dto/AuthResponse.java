@@ -4,7 +4,8 @@ import com.example.demo.entity.User;
 
 /**
  * Data Transfer Object for authentication responses.
- * Contains JWT token and user information after successful authentication.
+ * Contains the short-lived JWT access token, the opaque refresh token
+ * and user information after successful authentication.
  */
 public class AuthResponse {
     
@@ -15,6 +16,8 @@ public class AuthResponse {
     private String email;
     private String role;
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
     
     // Constructors
     public AuthResponse() {}
@@ -28,6 +31,12 @@ public class AuthResponse {
         this.expiresIn = expiresIn;
     }
     
+    public AuthResponse(String token, User user, Long expiresIn, String refreshToken, Long refreshExpiresIn) {
+        this(token, user, expiresIn);
+        this.refreshToken = refreshToken;
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+    
     public AuthResponse(String token, Long id, String username, String email, String role, Long expiresIn) {
         this.token = token;
         this.id = id;
@@ -94,6 +103,22 @@ public class AuthResponse {
         this.expiresIn = expiresIn;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    public Long getRefreshExpiresIn() {
+        return refreshExpiresIn;
+    }
+    
+    public void setRefreshExpiresIn(Long refreshExpiresIn) {
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+    
     @Override
     public String toString() {
         return "AuthResponse{" +
@@ -104,6 +129,8 @@ public class AuthResponse {
                 ", email='" + email + '\'' +
                 ", role='" + role + '\'' +
                 ", expiresIn=" + expiresIn +
+                ", refreshToken='[PROTECTED]'" +
+                ", refreshExpiresIn=" + refreshExpiresIn +
                 '}';
     }
 }
@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for batch token validation.
+ * Carries the access tokens to verify in one call.
+ */
+public class TokenBatchRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    private List<String> tokens;
+
+    // Constructors
+    public TokenBatchRequest() {}
+
+    public TokenBatchRequest(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    // Getters and Setters
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBatchRequest{tokens=" + (tokens != null ? tokens.size() : 0) + '}';
+    }
+}
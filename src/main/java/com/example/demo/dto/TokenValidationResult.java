@@ -0,0 +1,84 @@
+package com.example.demo.dto;
+
+import com.example.demo.util.TokenVerification;
+import com.example.demo.util.VerifiedToken;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for the outcome of validating one token in a batch.
+ * Valid tokens carry their subject and expiry; rejected ones carry the reason.
+ */
+public class TokenValidationResult {
+
+    private boolean valid;
+    private String subject;
+    private Instant expiresAt;
+    private String reason;
+
+    // Constructors
+    public TokenValidationResult() {}
+
+    public TokenValidationResult(boolean valid, String subject, Instant expiresAt, String reason) {
+        this.valid = valid;
+        this.subject = subject;
+        this.expiresAt = expiresAt;
+        this.reason = reason;
+    }
+
+    /**
+     * Build the result for a verification outcome.
+     * @param verification outcome of verifying the token
+     * @return result with subject and expiry, or the rejection reason tag
+     */
+    public static TokenValidationResult of(TokenVerification verification) {
+        if (!verification.isValid()) {
+            return new TokenValidationResult(false, null, null, verification.getFailure().tag());
+        }
+        VerifiedToken token = verification.getToken();
+        Instant expiresAt = token.getExpiration() != null ? token.getExpiration().toInstant() : null;
+        return new TokenValidationResult(true, token.getSubject(), expiresAt, null);
+    }
+
+    // Getters and Setters
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenValidationResult{" +
+                "valid=" + valid +
+                ", subject='" + subject + '\'' +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.User;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for user listing and export, bound from query parameters.
+ * Null fields do not filter.
+ */
+public class UserFilter {
+    
+    private User.Role role;
+    private Boolean enabled;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    
+    // Getters and Setters
+    public User.Role getRole() {
+        return role;
+    }
+    
+    public void setRole(User.Role role) {
+        this.role = role;
+    }
+    
+    public Boolean getEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+    
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+    
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+    
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserFilter{" +
+                "role=" + role +
+                ", enabled=" + enabled +
+                ", createdFrom=" + createdFrom +
+                ", createdTo=" + createdTo +
+                '}';
+    }
+}
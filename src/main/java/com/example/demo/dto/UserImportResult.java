@@ -0,0 +1,99 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object summarizing a bulk user import.
+ * Only the first {@link #MAX_REPORTED_ERRORS} row errors are listed; all are counted.
+ */
+public class UserImportResult {
+    
+    public static final int MAX_REPORTED_ERRORS = 100;
+    
+    private int imported;
+    private int rejected;
+    private List<RowError> errors = new ArrayList<>();
+    
+    /**
+     * Record a rejected input line.
+     * @param line 1-based line number in the uploaded body
+     * @param reason why the line was rejected
+     */
+    public void reject(int line, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, reason));
+        }
+    }
+    
+    public void addImported(int count) {
+        imported += count;
+    }
+    
+    // Getters and Setters
+    public int getImported() {
+        return imported;
+    }
+    
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserImportResult{" +
+                "imported=" + imported +
+                ", rejected=" + rejected +
+                ", errors=" + errors.size() +
+                '}';
+    }
+    
+    /**
+     * A rejected input line and the reason.
+     */
+    public static class RowError {
+        
+        private int line;
+        private String reason;
+        
+        public RowError() {}
+        
+        public RowError(int line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+        
+        public int getLine() {
+            return line;
+        }
+        
+        public void setLine(int line) {
+            this.line = line;
+        }
+        
+        public String getReason() {
+            return reason;
+        }
+        
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+}
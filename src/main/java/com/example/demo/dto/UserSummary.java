@@ -0,0 +1,104 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object for user listings and exports.
+ * Exposes only public account fields; never the password hash.
+ */
+public class UserSummary {
+    
+    private Long id;
+    private String username;
+    private String email;
+    private String role;
+    private boolean enabled;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public UserSummary() {}
+    
+    public UserSummary(Long id, String username, String email, String role, boolean enabled, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.enabled = enabled;
+        this.createdAt = createdAt;
+    }
+    
+    /**
+     * Constructor used by JPQL constructor-expression projections.
+     */
+    public UserSummary(Long id, String username, String email, User.Role role, boolean enabled, LocalDateTime createdAt) {
+        this(id, username, email, role.name(), enabled, createdAt);
+    }
+    
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(),
+                user.getRole().name(), user.isEnabled(), user.getCreatedAt());
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    public void setRole(String role) {
+        this.role = role;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserSummary{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", email='" + email + '\'' +
+                ", role='" + role + '\'' +
+                ", enabled=" + enabled +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Persisted asymmetric JWT key pair, shared by every instance of the service.
+ * Keys are encoded as PKCS#8 (private) and X.509 (public). The private key is AES-GCM encrypted
+ * when {@code jwt.key-encryption-key} is set; otherwise it is stored in the clear.
+ */
+@Entity
+@Table(name = "jwt_signing_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_jwt_signing_keys_rotation",
+                                             columnNames = {"algorithm", "rotation"}))
+public class JwtSigningKey {
+
+    @Id
+    @Column(name = "kid", length = 36)
+    private String kid;
+
+    // JWS algorithm ID, e.g. RS256
+    @Column(name = "algorithm", nullable = false, length = 16)
+    private String algorithm;
+
+    // JCA key algorithm used to decode the keys, e.g. RSA, EC or EdDSA
+    @Column(name = "key_algorithm", nullable = false, length = 16)
+    private String keyAlgorithm;
+
+    @Lob
+    @Column(name = "private_key", nullable = false)
+    private byte[] privateKey;
+
+    @Column(name = "private_key_encrypted", nullable = false)
+    private boolean privateKeyEncrypted;
+
+    @Lob
+    @Column(name = "public_key", nullable = false)
+    private byte[] publicKey;
+
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+
+    // 0 for an algorithm's first key, one more per rotation; unique, so of two instances
+    // rotating from the same key only one can insert
+    @Column(name = "rotation", nullable = false)
+    private long rotation;
+
+    // Constructors
+    public JwtSigningKey() {}
+
+    public JwtSigningKey(String kid, long rotation, String algorithm, String keyAlgorithm,
+                         byte[] privateKey, boolean privateKeyEncrypted, byte[] publicKey, Instant activatesAt) {
+        this.kid = kid;
+        this.rotation = rotation;
+        this.algorithm = algorithm;
+        this.keyAlgorithm = keyAlgorithm;
+        this.privateKey = privateKey;
+        this.privateKeyEncrypted = privateKeyEncrypted;
+        this.publicKey = publicKey;
+        this.activatesAt = activatesAt;
+    }
+
+    // Getters
+    public String getKid() {
+        return kid;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public byte[] getPrivateKey() {
+        return privateKey;
+    }
+
+    public boolean isPrivateKeyEncrypted() {
+        return privateKeyEncrypted;
+    }
+
+    public byte[] getPublicKey() {
+        return publicKey;
+    }
+
+    public Instant getActivatesAt() {
+        return activatesAt;
+    }
+
+    public long getRotation() {
+        return rotation;
+    }
+}
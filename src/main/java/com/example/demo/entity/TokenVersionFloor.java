@@ -0,0 +1,47 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Per-user revocation floor: every access token whose {@code ver} claim is below {@code minVersion} is invalid.
+ * Kept only until the last token below the floor would have expired anyway.
+ */
+@Entity
+@Table(name = "token_version_floors",
+        indexes = @Index(name = "idx_token_version_floors_expires", columnList = "expires_at"))
+public class TokenVersionFloor {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "min_version", nullable = false)
+    private long minVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Constructors
+    public TokenVersionFloor() {}
+
+    public TokenVersionFloor(Long userId, long minVersion, Instant expiresAt) {
+        this.userId = userId;
+        this.minVersion = minVersion;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getMinVersion() {
+        return minVersion;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
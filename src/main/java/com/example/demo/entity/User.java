@@ -8,32 +8,54 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * User entity representing a user in the authentication system.
  * Implements UserDetails for Spring Security integration.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.USERNAME_NORMALIZED_CONSTRAINT, columnNames = "username_normalized"),
+        @UniqueConstraint(name = User.EMAIL_NORMALIZED_CONSTRAINT, columnNames = "email_normalized")
+})
 public class User implements UserDetails {
     
+    // Named so that a violation can be mapped back to the offending field
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String USERNAME_NORMALIZED_CONSTRAINT = "uk_users_username_normalized";
+    public static final String EMAIL_NORMALIZED_CONSTRAINT = "uk_users_email_normalized";
+    
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
     
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
+    // Lower-cased copies backing the case-insensitive login lookups, each with its own unique index
+    @Column(name = "username_normalized", nullable = false)
+    private String usernameNormalized;
+    
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+    
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     @Column(nullable = false)
@@ -55,18 +77,26 @@ public class User implements UserDetails {
     @Column(name = "account_non_locked")
     private boolean accountNonLocked = true;
     
+    // Temporary lock after repeated failed logins; the account unlocks by itself once it passes
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+    
     @Column(name = "credentials_non_expired")
     private boolean credentialsNonExpired = true;
     
     @Column(name = "enabled")
     private boolean enabled = true;
     
+    // Bumped whenever credentials or account status change; embedded in issued tokens
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion = 0;
+    
     // Constructors
     public User() {}
     
     public User(String username, String email, String password) {
-        this.username = username;
-        this.email = email;
+        setUsername(username);
+        setEmail(email);
         this.password = password;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -75,7 +105,7 @@ public class User implements UserDetails {
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+        return role.getAuthorities();
     }
     
     @Override
@@ -95,7 +125,7 @@ public class User implements UserDetails {
     
     @Override
     public boolean isAccountNonLocked() {
-        return accountNonLocked;
+        return accountNonLocked && (lockedUntil == null || !lockedUntil.isAfter(Instant.now()));
     }
     
     @Override
@@ -119,6 +149,7 @@ public class User implements UserDetails {
     
     public void setUsername(String username) {
         this.username = username;
+        this.usernameNormalized = normalize(username);
     }
     
     public String getEmail() {
@@ -127,6 +158,24 @@ public class User implements UserDetails {
     
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalize(email);
+    }
+    
+    public String getUsernameNormalized() {
+        return usernameNormalized;
+    }
+    
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+    
+    /**
+     * Case-normalize a username or email for lookups and uniqueness.
+     * @param value raw username or email
+     * @return lower-cased value, or null
+     */
+    public static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
     }
     
     public void setPassword(String password) {
@@ -165,6 +214,14 @@ public class User implements UserDetails {
         this.accountNonLocked = accountNonLocked;
     }
     
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+    
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+    
     public void setCredentialsNonExpired(boolean credentialsNonExpired) {
         this.credentialsNonExpired = credentialsNonExpired;
     }
@@ -173,19 +230,45 @@ public class User implements UserDetails {
         this.enabled = enabled;
     }
     
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
+    public void incrementTokenVersion() {
+        this.tokenVersion++;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        usernameNormalized = normalize(username);
+        emailNormalized = normalize(email);
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        usernameNormalized = normalize(username);
+        emailNormalized = normalize(email);
     }
     
     // Role enum
     public enum Role {
-        USER, ADMIN
+        USER, ADMIN;
+        
+        // Shared by every user with the role; RoleAuthorityResolver adds the configured hierarchy
+        private final List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + name()));
+        
+        /**
+         * @return the role's own immutable {@code ROLE_} authority, without configured permissions
+         */
+        public List<GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
     }
 }
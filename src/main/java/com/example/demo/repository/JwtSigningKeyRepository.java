@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.JwtSigningKey;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for JwtSigningKey entity operations.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    /**
+     * Find the keys of one JWS algorithm, oldest first.
+     * @param algorithm JWS algorithm ID
+     * @return keys ordered by activation time
+     */
+    List<JwtSigningKey> findByAlgorithmOrderByActivatesAtAsc(String algorithm);
+
+    /**
+     * Find and lock the newest key of one JWS algorithm, so concurrent rotations run one at a time.
+     * With no key yet there is nothing to lock; the unique rotation number then decides.
+     * @param algorithm JWS algorithm ID
+     * @return the key with the highest rotation number, if any
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<JwtSigningKey> findFirstByAlgorithmOrderByRotationDesc(String algorithm);
+}
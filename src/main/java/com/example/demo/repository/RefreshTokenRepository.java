@@ -0,0 +1,57 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for RefreshToken entity operations.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Find a refresh token by the hash of its raw value.
+     * @param tokenHash base64url SHA-256 of the raw token
+     * @return Optional containing the token if found
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Atomically mark a still-active token as used. Of two concurrent rotations only one sees 1.
+     * @param tokenHash base64url SHA-256 of the raw token
+     * @param now rotation time
+     * @return number of tokens marked, 0 if it was already used or revoked
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :now " +
+           "WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    /**
+     * Revoke every token of a rotation family that is not revoked yet, used ones included.
+     * @param familyId the family to revoke
+     * @param now revocation time
+     * @return number of tokens revoked
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
+
+    /**
+     * Delete a user's expired tokens.
+     * @param userId the user ID
+     * @param now current time
+     * @return number of tokens deleted
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId AND t.expiresAt < :now")
+    int deleteExpired(@Param("userId") Long userId, @Param("now") Instant now);
+}
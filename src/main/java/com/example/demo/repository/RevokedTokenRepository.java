@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for RevokedToken entity operations.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Find revocations whose tokens have not expired yet.
+     * @param now current time
+     * @return unexpired revocations
+     */
+    @Query("SELECT t FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<RevokedToken> findUnexpired(@Param("now") Instant now);
+
+    /**
+     * Delete revocations whose tokens have expired.
+     * @param now current time
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
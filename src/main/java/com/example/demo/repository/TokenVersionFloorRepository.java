@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TokenVersionFloor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for TokenVersionFloor entity operations.
+ */
+@Repository
+public interface TokenVersionFloorRepository extends JpaRepository<TokenVersionFloor, Long> {
+
+    /**
+     * Find floors that can still reject an unexpired token.
+     * @param now current time
+     * @return active floors
+     */
+    @Query("SELECT f FROM TokenVersionFloor f WHERE f.expiresAt > :now")
+    List<TokenVersionFloor> findActive(@Param("now") Instant now);
+
+    /**
+     * Delete floors below which every token has expired.
+     * @param now current time
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM TokenVersionFloor f WHERE f.expiresAt <= :now")
+    int deleteInactive(@Param("now") Instant now);
+}
@@ -1,12 +1,21 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.UserSummary;
 import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entity operations.
@@ -30,32 +39,144 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     
     /**
-     * Check if username exists.
-     * @param username the username to check
-     * @return true if username exists, false otherwise
+     * Find user by case-normalized username, using the username_normalized index only.
+     * @param usernameNormalized the lower-cased username
+     * @return Optional containing the user if found
      */
-    boolean existsByUsername(String username);
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
     
     /**
-     * Check if email exists.
-     * @param email the email to check
-     * @return true if email exists, false otherwise
+     * Find user by case-normalized email, using the email_normalized index only.
+     * @param emailNormalized the lower-cased email
+     * @return Optional containing the user if found
      */
-    boolean existsByEmail(String email);
+    Optional<User> findByEmailNormalized(String emailNormalized);
     
     /**
-     * Find user by username or email.
-     * @param username the username to search for
-     * @param email the email to search for
-     * @return Optional containing the user if found
+     * Check if a case-normalized username exists.
+     * @param usernameNormalized the lower-cased username to check
+     * @return true if username exists, false otherwise
+     */
+    boolean existsByUsernameNormalized(String usernameNormalized);
+    
+    /**
+     * Check if a case-normalized email exists.
+     * @param emailNormalized the lower-cased email to check
+     * @return true if email exists, false otherwise
      */
-    @Query("SELECT u FROM User u WHERE u.username = :username OR u.email = :email")
-    Optional<User> findByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+    boolean existsByEmailNormalized(String emailNormalized);
     
     /**
      * Find all enabled users.
      * @return list of enabled users
      */
     @Query("SELECT u FROM User u WHERE u.enabled = true")
-    java.util.List<User> findAllEnabledUsers();
+    List<User> findAllEnabledUsers();
+    
+    /**
+     * Find which of the given case-normalized usernames are already taken, in a single query.
+     * @param usernames the lower-cased usernames to check
+     * @return the subset of usernames that exist
+     */
+    @Query("SELECT u.usernameNormalized FROM User u WHERE u.usernameNormalized IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
+    /**
+     * Find which of the given case-normalized emails are already registered, in a single query.
+     * @param emails the lower-cased emails to check
+     * @return the subset of emails that exist
+     */
+    @Query("SELECT u.emailNormalized FROM User u WHERE u.emailNormalized IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * Find a user's public fields by ID without loading the entity.
+     * @param id the user ID
+     * @return Optional containing the projection if found
+     */
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.username, u.email, u.role, u.enabled, u.createdAt) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
+    
+    /**
+     * Find a user's public fields by username without loading the entity.
+     * @param username the username
+     * @return Optional containing the projection if found
+     */
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.username, u.email, u.role, u.enabled, u.createdAt) " +
+           "FROM User u WHERE u.username = :username")
+    Optional<UserSummary> findSummaryByUsername(@Param("username") String username);
+    
+    /**
+     * Find all users' public fields without loading entities.
+     * @return projections ordered by ID
+     */
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.username, u.email, u.role, u.enabled, u.createdAt) " +
+           "FROM User u ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+    
+    /**
+     * Find the next keyset page of users after the given ID, with optional filters.
+     * Null filter arguments match everything. Only the page size of the Pageable is used.
+     * @param afterId only users with a greater ID are returned
+     * @param role role filter
+     * @param enabled enabled filter
+     * @param createdFrom inclusive lower bound on creation time
+     * @param createdTo exclusive upper bound on creation time
+     * @param limit page request carrying the page size
+     * @return user projections ordered by ID
+     */
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.username, u.email, u.role, u.enabled, u.createdAt) " +
+           "FROM User u WHERE u.id > :afterId " +
+           "AND (:role IS NULL OR u.role = :role) " +
+           "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+           "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) " +
+           "AND (:createdTo IS NULL OR u.createdAt < :createdTo) " +
+           "ORDER BY u.id")
+    List<UserSummary> findPageAfter(@Param("afterId") Long afterId,
+                             @Param("role") User.Role role,
+                             @Param("enabled") Boolean enabled,
+                             @Param("createdFrom") LocalDateTime createdFrom,
+                             @Param("createdTo") LocalDateTime createdTo,
+                             Pageable limit);
+    
+    /**
+     * Stream user projections with optional filters through a forward-only cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @param role role filter
+     * @param enabled enabled filter
+     * @param createdFrom inclusive lower bound on creation time
+     * @param createdTo exclusive upper bound on creation time
+     * @return stream of user projections ordered by ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.demo.dto.UserSummary(u.id, u.username, u.email, u.role, u.enabled, u.createdAt) " +
+           "FROM User u WHERE " +
+           "(:role IS NULL OR u.role = :role) " +
+           "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+           "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) " +
+           "AND (:createdTo IS NULL OR u.createdAt < :createdTo) " +
+           "ORDER BY u.id")
+    Stream<UserSummary> streamAll(@Param("role") User.Role role,
+                           @Param("enabled") Boolean enabled,
+                           @Param("createdFrom") LocalDateTime createdFrom,
+                           @Param("createdTo") LocalDateTime createdTo);
+    
+    /**
+     * Stream every case-normalized username through a forward-only cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return stream of lower-cased usernames
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.usernameNormalized FROM User u")
+    Stream<String> streamUsernamesNormalized();
+    
+    /**
+     * Stream every case-normalized email through a forward-only cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return stream of lower-cased emails
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.emailNormalized FROM User u")
+    Stream<String> streamEmailsNormalized();
 }
@@ -0,0 +1,65 @@
+package com.example.demo.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks a BCrypt work factor that fits a target hashing latency on the current host.
+ * Each strength step doubles the cost, so the search stops at the highest strength
+ * whose successor would overshoot the target.
+ */
+public final class BCryptStrengthCalibrator {
+    
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+    
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 5;
+    
+    private BCryptStrengthCalibrator() {
+    }
+    
+    /**
+     * Measure BCrypt on this host and choose a work factor.
+     * @param targetMillis desired hashing latency in milliseconds
+     * @return strength between {@link #MIN_STRENGTH} and {@link #MAX_STRENGTH}
+     */
+    public static int calibrate(long targetMillis) {
+        // Warm up so the first measurement is not dominated by class loading and JIT
+        new BCryptPasswordEncoder(MIN_STRENGTH).encode(SAMPLE_PASSWORD);
+        
+        return calibrate(targetMillis, strength -> {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            return System.nanoTime() - start;
+        });
+    }
+    
+    /**
+     * Choose a work factor from timed hashes. Each strength is judged on the median of
+     * {@link #SAMPLES} hashes, so a GC pause or a noisy neighbour during one sample does not
+     * shift the result.
+     * @param targetMillis desired hashing latency in milliseconds
+     * @param hashNanos times one hash at the given strength, in nanoseconds
+     * @return strength between {@link #MIN_STRENGTH} and {@link #MAX_STRENGTH}
+     */
+    static int calibrate(long targetMillis, IntToLongFunction hashNanos) {
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH) {
+            long[] samples = new long[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                samples[i] = hashNanos.applyAsLong(strength);
+            }
+            Arrays.sort(samples);
+            long medianMillis = samples[SAMPLES / 2] / 1_000_000;
+            if (medianMillis * 2 > targetMillis) {
+                break;
+            }
+            strength++;
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.security;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets at most one error line per interval through, so a flood of failing requests cannot
+ * flood the log. Suppressed errors are counted and reported on the next line that gets through.
+ * The stack trace is attached to that line only when trace logging is enabled.
+ */
+class ErrorLogLimiter {
+
+    private final long intervalMillis;
+    private final AtomicLong lastLog = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+
+    ErrorLogLimiter(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Log the failure at warn level unless another line was logged within the interval.
+     * @param log target log
+     * @param message what failed
+     * @param ex the failure
+     * @return true if the line was logged, false if it was suppressed
+     */
+    boolean warn(Logger log, String message, Throwable ex) {
+        long now = System.currentTimeMillis();
+        long last = lastLog.get();
+        if (now - last < intervalMillis || !lastLog.compareAndSet(last, now)) {
+            suppressed.increment();
+            return false;
+        }
+        String line = message + ": " + ex + " (" + suppressed.sumThenReset() + " similar errors suppressed)";
+        if (log.isTraceEnabled()) {
+            log.warn(line, ex);
+        } else {
+            log.warn(line);
+        }
+        return true;
+    }
+}
@@ -1,36 +1,84 @@
 package com.example.demo.security;
 
+import com.example.demo.entity.User;
 import com.example.demo.service.UserService;
 import com.example.demo.util.JwtUtil;
+import com.example.demo.util.TokenVerification;
+import com.example.demo.util.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT Authentication Filter that processes JWT tokens in HTTP requests.
  * Validates tokens and sets authentication in SecurityContext.
  */
 @Component
+@Profile("!reactive")
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    // At most one error line per interval, so a flood of failing requests cannot flood the log
+    private static final long ERROR_LOG_INTERVAL_MILLIS = 10_000;
+    
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final RoleAuthorityResolver roleAuthorities;
+    
+    // Meters are resolved once here so the per-request path does no registry lookups
+    private final Timer headerTimer;
+    private final Timer verifyTimer;
+    private final Timer loadTimer;
+    private final Counter successCounter;
+    private final Counter missingCounter;
+    private final Counter errorCounter;
+    private final Map<TokenVerification.Failure, Counter> failureCounters =
+            new EnumMap<>(TokenVerification.Failure.class);
+    private final ErrorLogLimiter errorLogLimiter = new ErrorLogLimiter(ERROR_LOG_INTERVAL_MILLIS);
+    
+    // When enabled, the principal is rebuilt from signed claims and the database is not consulted
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
     
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserService userService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserService userService, RoleAuthorityResolver roleAuthorities,
+                                   MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.roleAuthorities = roleAuthorities;
+        this.headerTimer = phaseTimer(meterRegistry, "header");
+        this.verifyTimer = phaseTimer(meterRegistry, "verify");
+        this.loadTimer = phaseTimer(meterRegistry, "load");
+        this.successCounter = outcomeCounter(meterRegistry, "success");
+        this.missingCounter = outcomeCounter(meterRegistry, "missing");
+        this.errorCounter = outcomeCounter(meterRegistry, "error");
+        for (TokenVerification.Failure failure : TokenVerification.Failure.values()) {
+            failureCounters.put(failure, outcomeCounter(meterRegistry, failure.tag()));
+        }
     }
     
     @Override
@@ -39,32 +87,105 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         
         try {
+            long start = System.nanoTime();
             String jwt = getJwtFromRequest(request);
+            headerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
-                
-                UserDetails userDetails = userService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (jwt == null) {
+                missingCounter.increment();
+            } else {
+                start = System.nanoTime();
+                TokenVerification verification = jwtUtil.verify(jwt);
+                verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (verification.isValid()) {
+                    VerifiedToken verified = verification.getToken();
+                    start = System.nanoTime();
+                    UserDetails userDetails = stateless
+                            ? toUserDetails(verified)
+                            : userService.loadUserByUsername(verified.getSubject());
+                    loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(userDetails, null,
+                                getAuthorities(verified, userDetails, stateless, roleAuthorities));
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    successCounter.increment();
+                } else {
+                    failureCounters.get(verification.getFailure()).increment();
+                }
             }
         } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
+            errorCounter.increment();
+            logError(ex);
         }
         
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Log an unexpected failure, rate limited; the stack trace is only attached at trace level.
+     */
+    private void logError(Exception ex) {
+        errorLogLimiter.warn(log, "Could not set user authentication in security context", ex);
+    }
+    
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("auth.filter.phase")
+                .description("Time spent in each JWT filter phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+    
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.filter.requests")
+                .description("JWT filter outcomes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Rebuild a detached principal from verified token claims.
+     * Shared with {@link JwtWebFilter} so both stacks build the same principal.
+     */
+    static UserDetails toUserDetails(VerifiedToken token) {
+        User user = new User();
+        user.setId(token.getUserId());
+        user.setUsername(token.getSubject());
+        if (token.getRole() != null) {
+            user.setRole(User.Role.valueOf(token.getRole()));
+        }
+        if (token.getVersion() != null) {
+            user.setTokenVersion(token.getVersion());
+        }
+        return user;
+    }
+    
+    /**
+     * Authorities come from the user's role, resolved once per role and shared. Only stateless
+     * tokens without a role claim fall back to mapping the signed roles claim.
+     */
+    static Collection<? extends GrantedAuthority> getAuthorities(VerifiedToken token, UserDetails userDetails,
+                                                                 boolean stateless,
+                                                                 RoleAuthorityResolver roleAuthorities) {
+        if (stateless && token.getRole() == null && !token.getRoles().isEmpty()) {
+            return token.getRoles().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+        }
+        return roleAuthorities.getAuthorities(userDetails);
+    }
+    
     /**
      * Extract JWT token from Authorization header.
      */
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        if (bearerToken != null && bearerToken.length() > BEARER_PREFIX.length()
+                && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
         }
         return null;
     }
@@ -0,0 +1,102 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import com.example.demo.util.SlidingWindowSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Throttles password guessing before any password is hashed.
+ * Failed logins are counted per account (the normalized username or email as typed) and per
+ * client address over a sliding window, each in a fixed-size count-min sketch, so memory stays
+ * bounded however many distinct names or addresses an attacker cycles through. Checking costs
+ * a few atomic reads; a rejected attempt never reaches BCrypt.
+ */
+@Component
+public class LoginAttemptLimiter {
+    
+    private final boolean enabled;
+    private final int maxAccountFailures;
+    private final int maxClientFailures;
+    private final Duration lockout;
+    private final SlidingWindowSketch accountFailures;
+    private final SlidingWindowSketch clientFailures;
+    
+    @Autowired
+    public LoginAttemptLimiter(@Value("${auth.login.throttle.enabled:true}") boolean enabled,
+                               @Value("${auth.login.throttle.window-ms:900000}") long windowMillis,
+                               @Value("${auth.login.throttle.max-failures-per-account:10}") int maxAccountFailures,
+                               @Value("${auth.login.throttle.max-failures-per-client:50}") int maxClientFailures,
+                               @Value("${auth.login.throttle.lockout-ms:900000}") long lockoutMillis,
+                               @Value("${auth.login.throttle.sketch-width:65536}") int sketchWidth) {
+        this.enabled = enabled;
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxClientFailures = maxClientFailures;
+        this.lockout = Duration.ofMillis(lockoutMillis);
+        this.accountFailures = new SlidingWindowSketch(sketchWidth, windowMillis);
+        this.clientFailures = new SlidingWindowSketch(sketchWidth, windowMillis);
+    }
+    
+    /**
+     * Reject the attempt if the account or client has exhausted its failure budget.
+     * @param usernameOrEmail login name as entered
+     * @param clientAddress remote address of the client, or null if unknown
+     * @throws LoginThrottledException if either budget is exhausted
+     */
+    public void checkAllowed(String usernameOrEmail, String clientAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String accountKey = accountKey(usernameOrEmail);
+        if (accountFailures.estimate(accountKey, now) >= maxAccountFailures) {
+            throw throttled(accountFailures, accountKey, maxAccountFailures, now);
+        }
+        if (clientAddress != null && clientFailures.estimate(clientAddress, now) >= maxClientFailures) {
+            throw throttled(clientFailures, clientAddress, maxClientFailures, now);
+        }
+    }
+    
+    /**
+     * Count a failed attempt against the account and the client.
+     * @param usernameOrEmail login name as entered
+     * @param clientAddress remote address of the client, or null if unknown
+     * @return true if the account has now reached its failure limit and should be locked
+     */
+    public boolean recordFailure(String usernameOrEmail, String clientAddress) {
+        if (!enabled) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (clientAddress != null) {
+            clientFailures.record(clientAddress, now);
+        }
+        return accountFailures.record(accountKey(usernameOrEmail), now) >= maxAccountFailures;
+    }
+    
+    /**
+     * @return how long an account stays locked after reaching its failure limit
+     */
+    public Duration getLockout() {
+        return lockout;
+    }
+    
+    public long getMemoryBytes() {
+        return accountFailures.getMemoryBytes() + clientFailures.getMemoryBytes();
+    }
+    
+    private static String accountKey(String usernameOrEmail) {
+        return usernameOrEmail != null ? User.normalize(usernameOrEmail.trim()) : "";
+    }
+    
+    /**
+     * Retry-After is when the sliding count drops back under the limit, assuming no more failures.
+     */
+    private static LoginThrottledException throttled(SlidingWindowSketch sketch, String key, int limit, long now) {
+        long retryAfterSeconds = Math.max(1, (sketch.millisUntilBelow(key, limit, now) + 999) / 1000);
+        return new LoginThrottledException("Too many failed login attempts, try again later", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.security;
+
+/**
+ * Thrown when an account or client address has too many recent failed logins.
+ * Mapped to 429 Too Many Requests with a Retry-After header.
+ */
+public class LoginThrottledException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
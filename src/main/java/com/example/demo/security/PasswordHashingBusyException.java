@@ -0,0 +1,12 @@
+package com.example.demo.security;
+
+/**
+ * Thrown when the password hashing pool and its queue are full.
+ * Mapped to 503 Service Unavailable so clients back off instead of piling up.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import com.example.demo.util.TokenBucketStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-user request rate limiting for authenticated requests.
+ * Runs after JwtAuthenticationFilter and keys a token bucket by the token subject, sized by the
+ * user's role ({@code api.rate-limit.roles.<role>.*}). Anonymous requests to the public auth
+ * endpoints ({@code api.rate-limit.anonymous.paths}: {@code /api/auth/**} and the availability
+ * check) are limited per client address with {@code api.rate-limit.anonymous.*}, so names cannot be
+ * enumerated at full speed; other anonymous requests pass through untouched. Failed logins are
+ * additionally throttled by LoginAttemptLimiter. Every limited response carries
+ * the RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset headers; rejected requests get
+ * 429 with Retry-After.
+ */
+@Component
+@Profile("!reactive")
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final String[] DEFAULT_ANONYMOUS_PATHS = {"/api/auth/**", "/api/public/availability"};
+    // Client addresses share the bucket table with usernames; the prefix keeps the keys apart
+    private static final String CLIENT_KEY_PREFIX = "client:";
+    private static final String REJECTED_BODY =
+            "{\"success\":false,\"message\":\"Rate limit exceeded, retry later\"}";
+    
+    private final boolean enabled;
+    private final TokenBucketStore buckets;
+    private final Map<User.Role, TokenBucketStore.Quota> quotas = new EnumMap<>(User.Role.class);
+    private final TokenBucketStore.Quota anonymousQuota;
+    private final String[] anonymousPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Counter rejectedCounter;
+    
+    @Autowired
+    public RateLimitFilter(Environment environment,
+                           MeterRegistry meterRegistry,
+                           @Value("${api.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${api.rate-limit.max-keys:65536}") int maxKeys) {
+        this.enabled = enabled;
+        this.buckets = new TokenBucketStore(maxKeys);
+        for (User.Role role : User.Role.values()) {
+            String prefix = "api.rate-limit.roles." + role.name().toLowerCase(Locale.ROOT) + ".";
+            quotas.put(role, TokenBucketStore.Quota.perSecond(
+                    environment.getProperty(prefix + "capacity", Integer.class, 100),
+                    environment.getProperty(prefix + "refill-per-second", Double.class, 10.0)));
+        }
+        this.anonymousQuota = TokenBucketStore.Quota.perSecond(
+                environment.getProperty("api.rate-limit.anonymous.capacity", Integer.class, 30),
+                environment.getProperty("api.rate-limit.anonymous.refill-per-second", Double.class, 1.0));
+        this.anonymousPaths = environment.getProperty("api.rate-limit.anonymous.paths", String[].class,
+                DEFAULT_ANONYMOUS_PATHS);
+        this.rejectedCounter = Counter.builder("api.rate_limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("api.rate_limit.evictions", buckets, TokenBucketStore::getEvictions)
+                .description("Busy buckets evicted because the bucket table was full")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String key;
+        TokenBucketStore.Quota quota;
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            key = user.getUsername();
+            quota = quotas.get(user.getRole() != null ? user.getRole() : User.Role.USER);
+        } else if (isAnonymousLimited(request)) {
+            key = CLIENT_KEY_PREFIX + request.getRemoteAddr();
+            quota = anonymousQuota;
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long result = buckets.tryConsume(key, quota, System.nanoTime());
+        response.setIntHeader("RateLimit-Limit", quota.capacity());
+        if (result > 0) {
+            response.setHeader("RateLimit-Remaining", Long.toString(TokenBucketStore.remaining(result, quota)));
+            response.setHeader("RateLimit-Reset", Long.toString(toSeconds(result)));
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        rejectedCounter.increment();
+        String retryAfter = Long.toString(toSeconds(-result));
+        response.setHeader("RateLimit-Remaining", "0");
+        response.setHeader("RateLimit-Reset", retryAfter);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(REJECTED_BODY);
+    }
+    
+    private boolean isAnonymousLimited(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : anonymousPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Round up so clients never retry too early.
+     */
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.mapping.GrantedAuthoritiesMapper;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expands the configured role hierarchy into one immutable authority list per role at startup.
+ * For each role, {@code security.roles.<role>.includes} lists roles whose authorities it inherits
+ * and {@code security.roles.<role>.permissions} lists extra authorities. Each distinct authority
+ * is a single shared instance, and no hierarchy is walked per request.
+ * The resolved lists are held here rather than on {@link User.Role}, so each application context
+ * has its own; the role itself only carries its {@code ROLE_} authority. Also serves as the
+ * authorities mapper for password logins.
+ */
+@Component
+public class RoleAuthorityResolver implements GrantedAuthoritiesMapper {
+    
+    private static final Logger log = LoggerFactory.getLogger(RoleAuthorityResolver.class);
+    
+    private final Environment environment;
+    private final Map<User.Role, List<GrantedAuthority>> authorities;
+    
+    /**
+     * Resolve every role.
+     * @param environment source of the {@code security.roles.*} properties
+     * @throws IllegalStateException if the hierarchy has a cycle or names an unknown role
+     */
+    @Autowired
+    public RoleAuthorityResolver(Environment environment) {
+        this.environment = environment;
+        Map<String, GrantedAuthority> interned = new HashMap<>();
+        Map<User.Role, List<GrantedAuthority>> resolved = new EnumMap<>(User.Role.class);
+        for (User.Role role : User.Role.values()) {
+            resolve(role, resolved, new LinkedHashSet<>(), interned);
+        }
+        this.authorities = Collections.unmodifiableMap(resolved);
+        log.info("Resolved role authorities: {}", resolved);
+    }
+    
+    /**
+     * @param role the role
+     * @return immutable authorities granted by the role, including configured permissions and included roles
+     */
+    public List<GrantedAuthority> getAuthorities(User.Role role) {
+        return authorities.get(role);
+    }
+    
+    /**
+     * Resolve the authorities of a user; principals other than {@link User} keep their own.
+     * @param userDetails the principal
+     * @return shared authorities of the user's role, without allocating
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities(UserDetails userDetails) {
+        if (userDetails instanceof User user && user.getRole() != null) {
+            return authorities.get(user.getRole());
+        }
+        return userDetails.getAuthorities();
+    }
+    
+    /**
+     * Expand every {@code ROLE_} authority of a known role into the role's resolved authorities.
+     */
+    @Override
+    public Collection<? extends GrantedAuthority> mapAuthorities(Collection<? extends GrantedAuthority> granted) {
+        Set<GrantedAuthority> mapped = new LinkedHashSet<>();
+        for (GrantedAuthority authority : granted) {
+            User.Role role = roleOf(authority.getAuthority());
+            if (role != null) {
+                mapped.addAll(authorities.get(role));
+            } else {
+                mapped.add(authority);
+            }
+        }
+        return List.copyOf(mapped);
+    }
+    
+    private static User.Role roleOf(String authority) {
+        for (User.Role role : User.Role.values()) {
+            if (role.getAuthorities().get(0).getAuthority().equals(authority)) {
+                return role;
+            }
+        }
+        return null;
+    }
+    
+    private List<GrantedAuthority> resolve(User.Role role, Map<User.Role, List<GrantedAuthority>> resolved,
+                                           Set<User.Role> path, Map<String, GrantedAuthority> interned) {
+        List<GrantedAuthority> done = resolved.get(role);
+        if (done != null) {
+            return done;
+        }
+        if (!path.add(role)) {
+            throw new IllegalStateException("Cycle in security.roles hierarchy: " + path + " -> " + role);
+        }
+        
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        authorities.add(intern("ROLE_" + role.name(), interned));
+        String prefix = "security.roles." + role.name().toLowerCase(Locale.ROOT) + ".";
+        for (String permission : list(prefix + "permissions")) {
+            authorities.add(intern(permission, interned));
+        }
+        for (String included : list(prefix + "includes")) {
+            authorities.addAll(resolve(role(included), resolved, path, interned));
+        }
+        
+        path.remove(role);
+        List<GrantedAuthority> result = List.copyOf(authorities);
+        resolved.put(role, result);
+        return result;
+    }
+    
+    private List<String> list(String property) {
+        String[] values = environment.getProperty(property, String[].class, new String[0]);
+        List<String> result = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (!value.isBlank()) {
+                result.add(value.trim());
+            }
+        }
+        return result;
+    }
+    
+    private static User.Role role(String name) {
+        try {
+            return User.Role.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown role in security.roles hierarchy: " + name, e);
+        }
+    }
+    
+    private static GrantedAuthority intern(String authority, Map<String, GrantedAuthority> interned) {
+        return interned.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.JwtSigningKey;
+import com.example.demo.repository.JwtSigningKeyRepository;
+import com.example.demo.util.SigningKeyRing;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+/**
+ * Owns the asymmetric JWT keys when {@code jwt.algorithm} is one of RS*, PS*, ES* or EdDSA.
+ * HS256, HS384 and HS512 sign with the shared {@code jwt.secret} instead; any other value fails startup.
+ * Keys live in the database so every instance signs and verifies with the same set.
+ * A rotated key is published (JWKS and verification) immediately but only starts signing
+ * after the activation delay, giving other instances and JWKS consumers time to fetch it;
+ * keep the delay above both the reload interval and the JWKS cache lifetime (5 minutes).
+ * Superseded keys keep verifying for one access-token lifetime and are then deleted.
+ * Private keys are encrypted with the AES key in {@code jwt.key-encryption-key} before they are
+ * stored; without one they are stored in the clear and a warning is logged at startup.
+ * Every instance runs the rotation schedule, but only the first one to lock the newest key
+ * rotates; the others find a key that is not active yet and skip. Each key carries a rotation
+ * number that is unique per algorithm, so instances starting together on an empty table
+ * also end up with a single first key.
+ */
+@Component
+public class SigningKeyManager {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyManager.class);
+    private static final Set<String> HMAC_ALGORITHMS = Set.of("HS256", "HS384", "HS512");
+    private static final String KEY_WRAP_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private final JwtSigningKeyRepository signingKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SigningKeyRing keyRing = new SigningKeyRing();
+    private final String algorithm;
+    private final long accessTokenLifetimeMillis;
+    private final long activationDelayMillis;
+    // Null when private keys are stored in the clear
+    private final SecretKey keyEncryptionKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    public SigningKeyManager(JwtSigningKeyRepository signingKeyRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${jwt.algorithm:HS256}") String algorithm,
+                             @Value("${jwt.expiration:86400000}") long accessTokenLifetimeMillis,
+                             @Value("${jwt.key-rotation.activation-delay-ms:600000}") long activationDelayMillis,
+                             @Value("${jwt.key-encryption-key:}") String keyEncryptionKey) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.algorithm = algorithm;
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+        this.activationDelayMillis = activationDelayMillis;
+        this.keyEncryptionKey = keyEncryptionKey.isBlank() ? null : aesKey(keyEncryptionKey);
+        if (isEnabled()) {
+            signatureAlgorithm();
+        }
+    }
+
+    /**
+     * Load the stored keys, creating the first one if there is none.
+     */
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (keyEncryptionKey == null) {
+            log.warn("jwt.key-encryption-key is not set; private signing keys are stored unencrypted");
+        }
+        reload();
+        if (keyRing.isEmpty()) {
+            // Another instance may be starting too; whichever stores its key first wins
+            rotate((newest, now) -> true);
+        }
+    }
+
+    /**
+     * @return true when tokens are signed with asymmetric keys rather than the HMAC secret
+     */
+    public boolean isEnabled() {
+        return !HMAC_ALGORITHMS.contains(algorithm.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return JWS algorithm ID of the key pairs, e.g. for the accepted token headers
+     * @throws IllegalStateException when signing with the HMAC secret
+     */
+    public String getAlgorithmId() {
+        return signatureAlgorithm().getId();
+    }
+
+    public SigningKeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    /**
+     * Generate a new key pair. The first key activates immediately, later ones after the activation delay.
+     */
+    public synchronized void rotate() {
+        rotate((newest, now) -> false);
+    }
+
+    /**
+     * Rotate unless another instance already has: a newest key that is not active yet means
+     * the rotation for this schedule was done. The newest key stays locked until the new key
+     * is committed, so of several instances firing together exactly one generates a key.
+     * @return true if this instance generated a key
+     */
+    public synchronized boolean rotateUnlessPending() {
+        return rotate((newest, now) -> newest.getActivatesAt().isAfter(now));
+    }
+
+    /**
+     * Store a key numbered one past the newest. Two instances that both see the same newest key,
+     * or both find none at startup, race for the same rotation number; the unique constraint lets
+     * exactly one insert, and the other uses the winner's key.
+     * @param skip tells, from the newest stored key and the current time, whether a new key is unnecessary
+     */
+    private synchronized boolean rotate(BiPredicate<JwtSigningKey, Instant> skip) {
+        Instant now = Instant.now();
+        Boolean rotated;
+        try {
+            rotated = transactionTemplate.execute(status -> {
+                Optional<JwtSigningKey> newest = signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc(
+                        signatureAlgorithm().getId());
+                if (newest.isPresent() && skip.test(newest.get(), now)) {
+                    log.info("Skipping rotation; newest signing key {} activates at {}", newest.get().getKid(),
+                            newest.get().getActivatesAt());
+                    return false;
+                }
+                long rotation = newest.map(key -> key.getRotation() + 1).orElse(0L);
+                generateKey(rotation, newest.isPresent() ? now.plusMillis(activationDelayMillis) : now);
+                return true;
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("Another instance generated the {} signing key first", algorithm);
+            rotated = false;
+        }
+        reload();
+        return Boolean.TRUE.equals(rotated);
+    }
+
+    /**
+     * Rotate on the configured schedule; disabled unless {@code jwt.key-rotation.cron} is set.
+     * Instances' clocks must agree to well within the activation delay for only one of them to rotate.
+     */
+    @Scheduled(cron = "${jwt.key-rotation.cron:-}")
+    public void scheduledRotation() {
+        if (isEnabled()) {
+            rotateUnlessPending();
+        }
+    }
+
+    /**
+     * Pick up keys created by other instances and drop expired ones.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-rotation.reload-ms:60000}",
+               initialDelayString = "${jwt.key-rotation.reload-ms:60000}")
+    public void scheduledReload() {
+        if (isEnabled()) {
+            reload();
+        }
+    }
+
+    /**
+     * Reload the ring from the database, deleting keys superseded for longer than a token lifetime.
+     */
+    public synchronized void reload() {
+        Instant retentionCutoff = Instant.now().minusMillis(accessTokenLifetimeMillis);
+        List<SigningKeyRing.Entry> entries = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<JwtSigningKey> stored = signingKeyRepository.findByAlgorithmOrderByActivatesAtAsc(
+                    signatureAlgorithm().getId());
+            for (int i = 0; i < stored.size(); i++) {
+                JwtSigningKey key = stored.get(i);
+                Instant supersededAt = i + 1 < stored.size() ? stored.get(i + 1).getActivatesAt() : null;
+                if (supersededAt != null && supersededAt.isBefore(retentionCutoff)) {
+                    signingKeyRepository.delete(key);
+                } else {
+                    entries.add(decode(key));
+                }
+            }
+        });
+        keyRing.replace(entries);
+    }
+
+    /**
+     * Generate and store a key pair; runs inside the caller's transaction.
+     */
+    private void generateKey(long rotation, Instant activatesAt) {
+        KeyPair keyPair = generateKeyPair();
+        String kid = UUID.randomUUID().toString();
+        byte[] privateKey = keyPair.getPrivate().getEncoded();
+        if (keyEncryptionKey != null) {
+            try {
+                privateKey = crypt(Cipher.ENCRYPT_MODE, kid, privateKey);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot encrypt signing key " + kid, e);
+            }
+        }
+        signingKeyRepository.saveAndFlush(new JwtSigningKey(kid, rotation, signatureAlgorithm().getId(),
+                keyPair.getPublic().getAlgorithm(), privateKey, keyEncryptionKey != null,
+                keyPair.getPublic().getEncoded(), activatesAt));
+        log.info("Generated {} signing key {} active from {}", algorithm, kid, activatesAt);
+    }
+
+    private SigningKeyRing.Entry decode(JwtSigningKey key) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(key.getKeyAlgorithm());
+            byte[] encodedPrivateKey = key.getPrivateKey();
+            if (key.isPrivateKeyEncrypted()) {
+                if (keyEncryptionKey == null) {
+                    throw new IllegalStateException("Signing key " + key.getKid()
+                            + " is encrypted but jwt.key-encryption-key is not set");
+                }
+                encodedPrivateKey = crypt(Cipher.DECRYPT_MODE, key.getKid(), encodedPrivateKey);
+            }
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(encodedPrivateKey));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(key.getPublicKey()));
+            return new SigningKeyRing.Entry(key.getKid(), signatureAlgorithm(), privateKey, publicKey,
+                    key.getActivatesAt());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decode signing key " + key.getKid(), e);
+        }
+    }
+
+    /**
+     * Encrypt or decrypt a private key with AES-GCM. The random IV is stored in front of the
+     * ciphertext, and the kid is authenticated so a key cannot be swapped onto another row.
+     */
+    private byte[] crypt(int mode, String kid, byte[] input) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(KEY_WRAP_TRANSFORMATION);
+        if (mode == Cipher.ENCRYPT_MODE) {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            secureRandom.nextBytes(iv);
+            cipher.init(mode, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(input);
+            byte[] output = Arrays.copyOf(iv, GCM_IV_BYTES + ciphertext.length);
+            System.arraycopy(ciphertext, 0, output, GCM_IV_BYTES, ciphertext.length);
+            return output;
+        }
+        cipher.init(mode, keyEncryptionKey, new GCMParameterSpec(GCM_TAG_BITS, input, 0, GCM_IV_BYTES));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(input, GCM_IV_BYTES, input.length - GCM_IV_BYTES);
+    }
+
+    private static SecretKey aesKey(String base64) {
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(base64.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("jwt.key-encryption-key must be Base64", e);
+        }
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalStateException("jwt.key-encryption-key must be a 128, 192 or 256-bit AES key");
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    private KeyPair generateKeyPair() {
+        // Pin EdDSA to Ed25519, the curve JWKS consumers support most widely
+        if (signatureAlgorithm() == Jwts.SIG.EdDSA) {
+            return Jwks.CRV.Ed25519.keyPair().build();
+        }
+        return signatureAlgorithm().keyPair().build();
+    }
+
+    private SignatureAlgorithm signatureAlgorithm() {
+        return switch (algorithm.toUpperCase(Locale.ROOT)) {
+            case "RS256" -> Jwts.SIG.RS256;
+            case "RS384" -> Jwts.SIG.RS384;
+            case "RS512" -> Jwts.SIG.RS512;
+            case "PS256" -> Jwts.SIG.PS256;
+            case "PS384" -> Jwts.SIG.PS384;
+            case "PS512" -> Jwts.SIG.PS512;
+            case "ES256" -> Jwts.SIG.ES256;
+            case "ES384" -> Jwts.SIG.ES384;
+            case "ES512" -> Jwts.SIG.ES512;
+            case "EDDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("Unsupported jwt.algorithm: " + algorithm);
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.RevokedToken;
+import com.example.demo.entity.TokenVersionFloor;
+import com.example.demo.repository.RevokedTokenRepository;
+import com.example.demo.repository.TokenVersionFloorRepository;
+import com.example.demo.util.VerifiedToken;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory revocation list for access tokens, consulted on every authenticated request.
+ * Holds revoked {@code jti}s until the tokens would have expired, plus a per-user minimum
+ * {@code ver} claim that invalidates every token issued with an older token version. Comparing
+ * versions instead of issue times rejects exactly the tokens issued before the revocation, even
+ * within the same second, and never a token issued after it. Both are written through to the database,
+ * applied in memory once the write commits, and reloaded periodically so revocations made on other
+ * instances take effect within {@code jwt.revocation.reload-ms}. Lookups are two hash probes on keys the verified token already
+ * holds, so the common "not revoked" path does not allocate.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final long PRUNE_INTERVAL_MILLIS = 60_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenVersionFloorRepository tokenVersionFloorRepository;
+    private final TransactionTemplate transactionTemplate;
+    // jti -> token expiry, epoch millis
+    private final ConcurrentHashMap<String, Long> revokedIds = new ConcurrentHashMap<>();
+    // user ID -> tokens with a lower ver claim are invalid
+    private final ConcurrentHashMap<Long, VersionFloor> versionFloors = new ConcurrentHashMap<>();
+    private final AtomicLong lastPrune = new AtomicLong();
+    private final long accessTokenLifetimeMillis;
+
+    @Autowired
+    public TokenRevocationRegistry(RevokedTokenRepository revokedTokenRepository,
+                                   TokenVersionFloorRepository tokenVersionFloorRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${jwt.expiration:86400000}") long accessTokenLifetimeMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenVersionFloorRepository = tokenVersionFloorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accessTokenLifetimeMillis = accessTokenLifetimeMillis;
+    }
+
+    /**
+     * Load revocations that can still reject an unexpired token.
+     * Merges into the entries already held, so a reload never drops a revocation.
+     */
+    @PostConstruct
+    public void load() {
+        long now = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (RevokedToken token : revokedTokenRepository.findUnexpired(Instant.ofEpochMilli(now))) {
+                revokedIds.put(token.getJti(), token.getExpiresAt().toEpochMilli());
+            }
+            for (TokenVersionFloor floor : tokenVersionFloorRepository.findActive(Instant.ofEpochMilli(now))) {
+                versionFloors.merge(floor.getUserId(),
+                        new VersionFloor(floor.getMinVersion(), floor.getExpiresAt().toEpochMilli()),
+                        VersionFloor::max);
+            }
+        });
+        lastPrune.compareAndSet(0, now);
+    }
+
+    /**
+     * Pick up revocations written by other instances.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.reload-ms:30000}",
+               initialDelayString = "${jwt.revocation.reload-ms:30000}")
+    public void scheduledReload() {
+        load();
+    }
+
+    /**
+     * Check whether a verified token has been revoked.
+     * @param token verified token
+     * @return true if its jti was revoked or its token version is below its user's floor
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String jti = token.getId();
+        if (jti != null && !revokedIds.isEmpty() && revokedIds.containsKey(jti)) {
+            return true;
+        }
+        Long userId = token.getUserId();
+        if (userId == null || versionFloors.isEmpty()) {
+            return false;
+        }
+        VersionFloor floor = versionFloors.get(userId);
+        Long version = token.getVersion();
+        return floor != null && (version == null || version < floor.minVersion());
+    }
+
+    /**
+     * Revoke a single access token until it expires.
+     * Tokens without a jti can only be revoked through {@link #revokeAllForUser(Long, long)}.
+     * @param token verified token to revoke
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getId() == null || token.getExpiration() == null) {
+            return;
+        }
+        String jti = token.getId();
+        long expiresAt = token.getExpiration().getTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            revokedTokenRepository.save(new RevokedToken(jti, token.getUserId(), token.getExpiration().toInstant()));
+            pruneIfDue();
+            afterCommit(() -> revokedIds.put(jti, expiresAt));
+        });
+    }
+
+    /**
+     * Invalidate every access token issued to the user with an older token version.
+     * Call after bumping the user's token version, with the new version.
+     * @param userId the user ID
+     * @param minVersion lowest token version that stays valid
+     */
+    public void revokeAllForUser(Long userId, long minVersion) {
+        if (userId == null) {
+            return;
+        }
+        // Tokens below the floor were issued before now, so all have expired one lifetime later
+        VersionFloor floor = new VersionFloor(minVersion, System.currentTimeMillis() + accessTokenLifetimeMillis);
+        VersionFloor current = versionFloors.get(userId);
+        VersionFloor merged = current == null ? floor : current.max(floor);
+        transactionTemplate.executeWithoutResult(status -> {
+            tokenVersionFloorRepository.save(new TokenVersionFloor(userId, merged.minVersion(),
+                    Instant.ofEpochMilli(merged.expiresAt())));
+            pruneIfDue();
+            afterCommit(() -> versionFloors.merge(userId, merged, VersionFloor::max));
+        });
+    }
+
+    public int getRevokedTokenCount() {
+        return revokedIds.size();
+    }
+
+    public int getRevokedUserCount() {
+        return versionFloors.size();
+    }
+
+    /**
+     * Apply an in-memory change once the surrounding transaction commits, so a rolled-back
+     * revocation never rejects tokens. Runs immediately when no synchronization is active.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Drop entries that can no longer match an unexpired token, at most once per interval.
+     * Runs inside the caller's write transaction.
+     */
+    private void pruneIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPrune.get();
+        if (now - last < PRUNE_INTERVAL_MILLIS || !lastPrune.compareAndSet(last, now)) {
+            return;
+        }
+        revokedIds.values().removeIf(expiresAt -> expiresAt <= now);
+        versionFloors.values().removeIf(floor -> floor.expiresAt() <= now);
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+        tokenVersionFloorRepository.deleteInactive(Instant.ofEpochMilli(now));
+    }
+
+    /**
+     * @param minVersion lowest token version that stays valid
+     * @param expiresAt when every token below the floor has expired, epoch millis
+     */
+    private record VersionFloor(long minVersion, long expiresAt) {
+
+        VersionFloor max(VersionFloor other) {
+            return new VersionFloor(Math.max(minVersion, other.minVersion), Math.max(expiresAt, other.expiresAt));
+        }
+    }
+}
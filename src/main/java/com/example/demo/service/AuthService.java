@@ -3,49 +3,93 @@ package com.example.demo.service;
 import com.example.demo.dto.AuthResponse;
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.TokenValidationResult;
 import com.example.demo.entity.User;
+import com.example.demo.security.LoginAttemptLimiter;
+import com.example.demo.security.LoginThrottledException;
+import com.example.demo.security.PasswordHashingBusyException;
+import com.example.demo.security.TokenRevocationRegistry;
 import com.example.demo.util.JwtUtil;
+import com.example.demo.util.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Service class for authentication operations.
  * Handles login, registration, and token generation.
  */
 @Service
+@Profile("!reactive")
 public class AuthService {
     
+    // Below this size the fork/join hand-off costs more than verifying inline
+    private static final int PARALLEL_BATCH_THRESHOLD = 64;
+    
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${jwt.validate.batch.max-size:500}")
+    private int maxBatchSize;
     
     @Autowired
     public AuthService(AuthenticationManager authenticationManager, 
                       UserService userService, 
-                      JwtUtil jwtUtil) {
+                      JwtUtil jwtUtil,
+                      RefreshTokenService refreshTokenService,
+                      TokenRevocationRegistry revocationRegistry,
+                      LoginAttemptLimiter loginAttemptLimiter,
+                      MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationRegistry = revocationRegistry;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.meterRegistry = meterRegistry;
     }
     
     /**
-     * Authenticate user and generate JWT token.
+     * Authenticate user and generate an access token plus a new refresh token family.
+     * Attempts from throttled accounts or clients are rejected before any password is hashed.
      * @param loginRequest login credentials
-     * @return authentication response with JWT token
+     * @param clientAddress remote address of the client, or null if unknown
+     * @return authentication response with access and refresh tokens
      * @throws BadCredentialsException if credentials are invalid
+     * @throws LoginThrottledException if the account or client has too many recent failures
+     * @throws PasswordHashingBusyException if the password hashing pool is saturated
      */
-    public AuthResponse login(LoginRequest loginRequest) {
+    public AuthResponse login(LoginRequest loginRequest, String clientAddress) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String usernameOrEmail = loginRequest.getUsernameOrEmail();
         try {
+            loginAttemptLimiter.checkAllowed(usernameOrEmail, clientAddress);
+            
             // Authenticate user
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsernameOrEmail(),
+                    usernameOrEmail,
                     loginRequest.getPassword()
                 )
             );
@@ -59,28 +103,56 @@ public class AuthService {
             String token = jwtUtil.generateToken(userDetails);
             
             // Return authentication response
-            return new AuthResponse(token, user, jwtUtil.getExpirationTime());
+            outcome = "success";
+            return authResponse(token, user, refreshTokenService.issue(user));
             
+        } catch (LoginThrottledException e) {
+            outcome = "throttled";
+            throw e;
+        } catch (PasswordHashingBusyException e) {
+            outcome = "busy";
+            throw e;
+        } catch (LockedException e) {
+            // Locked by an earlier burst of failures, possibly on another instance; checked before hashing
+            outcome = "throttled";
+            throw new LoginThrottledException("Too many failed login attempts, try again later",
+                    loginAttemptLimiter.getLockout().toSeconds());
         } catch (AuthenticationException e) {
+            outcome = "bad_credentials";
+            if (loginAttemptLimiter.recordFailure(usernameOrEmail, clientAddress)) {
+                userService.lockTemporarily(usernameOrEmail, Instant.now().plus(loginAttemptLimiter.getLockout()));
+            }
             throw new BadCredentialsException("Invalid username/email or password");
+        } finally {
+            record(sample, "auth.login", outcome);
         }
     }
     
     /**
-     * Register new user and generate JWT token.
+     * Register new user and generate an access token plus a new refresh token family.
      * @param registerRequest registration details
-     * @return authentication response with JWT token
+     * @return authentication response with access and refresh tokens
      * @throws RuntimeException if registration fails
      */
     public AuthResponse register(RegisterRequest registerRequest) {
-        // Register user
-        User user = userService.registerUser(registerRequest);
-        
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user);
-        
-        // Return authentication response
-        return new AuthResponse(token, user, jwtUtil.getExpirationTime());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
+        try {
+            // Register user
+            User user = userService.registerUser(registerRequest);
+            
+            // Generate JWT token
+            String token = jwtUtil.generateToken(user);
+            
+            // Return authentication response
+            outcome = "success";
+            return authResponse(token, user, refreshTokenService.issue(user));
+        } catch (PasswordHashingBusyException e) {
+            outcome = "busy";
+            throw e;
+        } finally {
+            record(sample, "auth.register", outcome);
+        }
     }
     
     /**
@@ -92,31 +164,93 @@ public class AuthService {
         return jwtUtil.validateToken(token);
     }
     
+    /**
+     * Validate many tokens in one call, e.g. for a gateway checking a batch of requests.
+     * Each token is verified independently with the shared, thread-safe parser; large
+     * batches are verified in parallel. Results are in the same order as the tokens.
+     * @param tokens JWT tokens to validate
+     * @return one result per token, with subject and expiry or the rejection reason
+     * @throws TokenBatchTooLargeException if the batch exceeds {@code jwt.validate.batch.max-size}
+     */
+    public List<TokenValidationResult> validateTokens(List<String> tokens) {
+        if (tokens.size() > maxBatchSize) {
+            throw new TokenBatchTooLargeException(maxBatchSize);
+        }
+        Stream<String> stream = tokens.size() >= PARALLEL_BATCH_THRESHOLD
+                ? tokens.parallelStream() : tokens.stream();
+        return stream
+                .map(token -> TokenValidationResult.of(jwtUtil.verify(token)))
+                .toList();
+    }
+    
+    /**
+     * Parse and verify JWT token in a single pass.
+     * @param token JWT token
+     * @return verified token, or empty if invalid or expired
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        return jwtUtil.verifyToken(token);
+    }
+    
     /**
      * Get username from JWT token.
      * @param token JWT token
      * @return username
+     * @throws RuntimeException if token is invalid
      */
     public String getUsernameFromToken(String token) {
-        return jwtUtil.extractUsername(token);
+        return verifyToken(token)
+                .map(VerifiedToken::getSubject)
+                .orElseThrow(() -> new RuntimeException("Invalid token"));
+    }
+    
+    /**
+     * Exchange a refresh token for a new access token, rotating the refresh token.
+     * No password hashing is involved, so clients can renew short-lived access tokens cheaply.
+     * @param refreshToken opaque refresh token issued at login or by the previous refresh
+     * @return new authentication response with fresh access and refresh tokens
+     * @throws RefreshTokenException if the refresh token is invalid, expired, reused or revoked
+     */
+    public AuthResponse refreshToken(String refreshToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+            String newToken = jwtUtil.generateToken(rotation.user());
+            outcome = "success";
+            return authResponse(newToken, rotation.user(), rotation.refreshToken());
+        } catch (RefreshTokenException e) {
+            outcome = e.getReason().tag();
+            throw e;
+        } finally {
+            record(sample, "auth.refresh", outcome);
+        }
     }
     
     /**
-     * Refresh JWT token.
-     * @param token current JWT token
-     * @return new authentication response with refreshed token
-     * @throws RuntimeException if token is invalid or user not found
+     * Revoke a refresh token and every token rotated from the same login,
+     * plus the presented access token if any.
+     * @param refreshToken opaque refresh token
+     * @param accessToken current access token, or null
      */
-    public AuthResponse refreshToken(String token) {
-        if (!jwtUtil.validateToken(token)) {
-            throw new RuntimeException("Invalid token");
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken != null) {
+            verifyToken(accessToken).ifPresent(revocationRegistry::revoke);
         }
-        
-        String username = jwtUtil.extractUsername(token);
-        User user = userService.findByUsernameOrEmail(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        String newToken = jwtUtil.generateToken(user);
-        return new AuthResponse(newToken, user, jwtUtil.getExpirationTime());
+    }
+    
+    private AuthResponse authResponse(String token, User user, String refreshToken) {
+        return new AuthResponse(token, user, jwtUtil.getExpirationTime(),
+                refreshToken, refreshTokenService.getExpirationMillis());
+    }
+    
+    /**
+     * Stop a timer sample under the given metric name and outcome tag.
+     */
+    private void record(Timer.Sample sample, String name, String outcome) {
+        sample.stop(Timer.builder(name)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
     }
 }
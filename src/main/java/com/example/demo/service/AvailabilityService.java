@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Username and email availability checks for the signup form.
+ * Answers "available" straight from the in-memory filter when it rules a name out and only
+ * queries the database when the filter reports a possible match. Deleted users stay in the
+ * filter, so their names fall through to the database and are reported correctly.
+ */
+@Service
+@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+public class AvailabilityService {
+
+    private final UserRepository userRepository;
+    private final RegisteredNamesFilter registeredNames;
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder taken = new LongAdder();
+
+    @Autowired
+    public AvailabilityService(UserRepository userRepository, RegisteredNamesFilter registeredNames) {
+        this.userRepository = userRepository;
+        this.registeredNames = registeredNames;
+    }
+
+    /**
+     * Check whether a username can still be registered, case-insensitively.
+     * @param username the username to check
+     * @return true if no user has the username
+     */
+    public boolean isUsernameAvailable(String username) {
+        String normalized = User.normalize(username);
+        return isAvailable(normalized, registeredNames.mightContainUsername(normalized),
+                userRepository::existsByUsernameNormalized);
+    }
+
+    /**
+     * Check whether an email can still be registered, case-insensitively.
+     * @param email the email to check
+     * @return true if no user has the email
+     */
+    public boolean isEmailAvailable(String email) {
+        String normalized = User.normalize(email);
+        return isAvailable(normalized, registeredNames.mightContainEmail(normalized),
+                userRepository::existsByEmailNormalized);
+    }
+
+    private boolean isAvailable(String normalized, boolean mightContain, Predicate<String> existsQuery) {
+        if (registeredNames.isEnabled() && !mightContain) {
+            filtered.increment();
+            return true;
+        }
+        if (existsQuery.test(normalized)) {
+            taken.increment();
+            return false;
+        }
+        if (registeredNames.isEnabled()) {
+            falsePositives.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of checks answered from the filter without a query.
+     * @return filtered check count
+     */
+    public long getFilteredCount() {
+        return filtered.sum();
+    }
+
+    /**
+     * Get the number of checks where the filter reported a possible match the database did not confirm.
+     * Includes checks made while the filter was still loading.
+     * @return false-positive count
+     */
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Get the number of checks that found the name taken.
+     * @return taken count
+     */
+    public long getTakenCount() {
+        return taken.sum();
+    }
+
+    /**
+     * Get the observed false-positive rate: false positives among all checks for free names.
+     * @return observed rate, or 0 before any free name was checked
+     */
+    public double getObservedFalsePositiveRate() {
+        long negatives = filtered.sum() + falsePositives.sum();
+        return negatives == 0 ? 0 : (double) falsePositives.sum() / negatives;
+    }
+}
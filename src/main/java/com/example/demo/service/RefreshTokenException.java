@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+/**
+ * Thrown when a refresh token cannot be rotated.
+ */
+public class RefreshTokenException extends RuntimeException {
+
+    /**
+     * Why the refresh token was rejected; the tag is used as the metrics outcome.
+     */
+    public enum Reason {
+        INVALID("invalid"),
+        EXPIRED("expired"),
+        REUSED("reused"),
+        REVOKED("revoked");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final Reason reason;
+
+    public RefreshTokenException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
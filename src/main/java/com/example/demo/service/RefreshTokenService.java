@@ -0,0 +1,249 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues, rotates and revokes opaque refresh tokens.
+ * Tokens are 256-bit random values; only their SHA-256 hash is stored. Every refresh consumes
+ * the presented token and issues a new one in the same family. Presenting a consumed token
+ * again is treated as theft and revokes the whole family; presenting a token revoked by a
+ * logout is simply rejected as revoked.
+ * Active tokens are kept in a bounded in-memory front cache so a rotation normally needs
+ * no lookup query, only the conditional update that consumes the token and the insert of its successor.
+ * Tokens that expire without being rotated are evicted once the cache fills up.
+ */
+@Service
+@Transactional(noRollbackFor = RefreshTokenException.class)
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ConcurrentHashMap<String, CachedToken> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Earliest expiry among cached tokens, so a full cache is only swept once something has expired
+    private final AtomicLong earliestExpiryMillis = new AtomicLong(Long.MAX_VALUE);
+    private final long expirationMillis;
+    private final int cacheSize;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${jwt.refresh.expiration:2592000000}") long expirationMillis,
+                               @Value("${jwt.refresh.cache-size:10000}") int cacheSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.expirationMillis = expirationMillis;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Start a new refresh token family for a freshly authenticated user.
+     * Also drops the user's expired tokens so the table stays small.
+     * @param user the authenticated user
+     * @return raw refresh token, to be handed to the client once
+     */
+    public String issue(User user) {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpired(user.getId(), now);
+        return store(user, UUID.randomUUID(), now);
+    }
+
+    /**
+     * Consume a refresh token and issue its successor.
+     * @param rawToken refresh token presented by the client
+     * @return the token's user and the new raw refresh token
+     * @throws RefreshTokenException if the token is unknown, expired, already used or revoked
+     */
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new RefreshTokenException(RefreshTokenException.Reason.INVALID, "Invalid refresh token");
+        }
+        String tokenHash = hash(rawToken);
+        Instant now = Instant.now();
+
+        CachedToken token = cache.remove(tokenHash);
+        if (token != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new RefreshTokenException(RefreshTokenException.Reason.INVALID,
+                            "Invalid refresh token"));
+            token = new CachedToken(stored.getUserId(), stored.getFamilyId(), stored.getTokenVersion(),
+                    stored.getExpiresAt());
+            if (stored.getUsedAt() != null || stored.getRevokedAt() != null) {
+                throw unusable(stored, token, now);
+            }
+        }
+
+        if (!token.expiresAt().isAfter(now)) {
+            throw new RefreshTokenException(RefreshTokenException.Reason.EXPIRED, "Refresh token has expired");
+        }
+        // Only one of two concurrent rotations of the same token can consume it
+        if (refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+            // Consumed concurrently, or revoked by a logout on another instance
+            CachedToken cached = token;
+            throw refreshTokenRepository.findByTokenHash(tokenHash)
+                    .map(stored -> unusable(stored, cached, now))
+                    .orElseGet(() -> new RefreshTokenException(RefreshTokenException.Reason.INVALID,
+                            "Invalid refresh token"));
+        }
+
+        CachedToken consumed = token;
+        User user = userRepository.findById(token.userId())
+                .filter(User::isEnabled)
+                .filter(candidate -> candidate.getTokenVersion() == consumed.tokenVersion())
+                .orElse(null);
+        if (user == null) {
+            revokeFamily(token.familyId(), now);
+            throw new RefreshTokenException(RefreshTokenException.Reason.REVOKED, "Refresh token has been revoked");
+        }
+        return new Rotation(user, store(user, token.familyId(), now));
+    }
+
+    /**
+     * Revoke the family of the given refresh token, e.g. on logout. Unknown tokens are ignored.
+     * @param rawToken refresh token presented by the client
+     */
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), Instant.now()));
+    }
+
+    /**
+     * Get the refresh token lifetime.
+     * @return lifetime in milliseconds
+     */
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    private String store(User user, UUID familyId, Instant now) {
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String rawToken = BASE64_URL.encodeToString(random);
+        String tokenHash = hash(rawToken);
+
+        RefreshToken token = new RefreshToken(tokenHash, user.getId(), familyId, user.getTokenVersion(),
+                now.plusMillis(expirationMillis));
+        refreshTokenRepository.save(token);
+
+        CachedToken cached = new CachedToken(user.getId(), familyId, user.getTokenVersion(), token.getExpiresAt());
+        // Cache only once the row is committed, so a rolled-back insert is never served from memory
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(tokenHash, cached);
+                }
+            });
+        } else {
+            cache(tokenHash, cached);
+        }
+        return rawToken;
+    }
+
+    private void cache(String tokenHash, CachedToken token) {
+        if (cache.size() >= cacheSize) {
+            evictExpired(Instant.now());
+        }
+        // A full cache only costs a lookup query on the next rotation
+        if (cache.size() < cacheSize) {
+            cache.put(tokenHash, token);
+            earliestExpiryMillis.accumulateAndGet(token.expiresAt().toEpochMilli(), Math::min);
+        }
+    }
+
+    private void evictExpired(Instant now) {
+        if (now.toEpochMilli() < earliestExpiryMillis.get()) {
+            return;
+        }
+        cache.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+        earliestExpiryMillis.set(cache.values().stream()
+                .mapToLong(cached -> cached.expiresAt().toEpochMilli())
+                .min()
+                .orElse(Long.MAX_VALUE));
+    }
+
+    /**
+     * Reject a token that was already used or revoked. Only reuse of a rotated token revokes its family.
+     */
+    private RefreshTokenException unusable(RefreshToken stored, CachedToken token, Instant now) {
+        if (stored.getUsedAt() != null) {
+            return reused(token, now);
+        }
+        return new RefreshTokenException(RefreshTokenException.Reason.REVOKED, "Refresh token has been revoked");
+    }
+
+    private RefreshTokenException reused(CachedToken token, Instant now) {
+        int revoked = revokeFamily(token.familyId(), now);
+        log.warn("Refresh token reuse detected for user {}; revoked {} active token(s) in its family",
+                token.userId(), revoked);
+        return new RefreshTokenException(RefreshTokenException.Reason.REUSED, "Refresh token has already been used");
+    }
+
+    private int revokeFamily(UUID familyId, Instant now) {
+        cache.values().removeIf(cached -> cached.familyId().equals(familyId));
+        return refreshTokenRepository.revokeFamily(familyId, now);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return BASE64_URL.encodeToString(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a successful rotation.
+     * @param user owner of the consumed token
+     * @param refreshToken new raw refresh token
+     */
+    public record Rotation(User user, String refreshToken) {}
+
+    private record CachedToken(Long userId, UUID familyId, long tokenVersion, Instant expiresAt) {}
+}
@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters over every registered (case-normalized) username and email.
+ * Lets registration skip the existence query for names that are definitely free;
+ * a "maybe" answer still goes to the database, and the unique constraints stay authoritative.
+ * Filled from the database once the application is ready and kept up to date as users are created
+ * on this instance. Users created by other instances are only picked up by the periodic rebuild,
+ * so with several instances a name taken elsewhere can be reported free for up to one rebuild
+ * interval; registration still rejects it through the unique constraints. The rebuild also drops
+ * deleted users, which a Bloom filter cannot remove.
+ */
+@Component
+public class RegisteredNamesFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredNamesFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private volatile Filters filters;
+    // Filters being filled by a rebuild; users created meanwhile go into both
+    private volatile Filters rebuilding;
+    private volatile boolean loaded;
+
+    @Autowired
+    public RegisteredNamesFilter(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${user.registration.precheck.enabled:true}") boolean enabled,
+                                 @Value("${user.registration.precheck.expected-users:1000000}") long expectedUsers,
+                                 @Value("${user.registration.precheck.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = enabled ? new Filters(expectedUsers, falsePositiveRate) : null;
+    }
+
+    /**
+     * Load every existing username and email into the filters.
+     * Until this completes every lookup answers "maybe", so registration falls back to the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        rebuild();
+        loaded = true;
+    }
+
+    /**
+     * Rebuild the filters from the database, picking up users created by other instances.
+     */
+    @Scheduled(fixedDelayString = "${user.registration.precheck.reload-ms:300000}",
+               initialDelayString = "${user.registration.precheck.reload-ms:300000}")
+    public void scheduledReload() {
+        if (enabled && loaded) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Fill fresh filters from the database and swap them in once complete.
+     * Lookups keep using the previous filters until then.
+     */
+    synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        Filters fresh = new Filters(expectedUsers, falsePositiveRate);
+        rebuilding = fresh;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> names = userRepository.streamUsernamesNormalized()) {
+                    names.forEach(fresh.usernames()::add);
+                }
+                try (Stream<String> names = userRepository.streamEmailsNormalized()) {
+                    names.forEach(fresh.emails()::add);
+                }
+            });
+            filters = fresh;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("Loaded {} usernames into the registration pre-check filter in {} ms",
+                fresh.usernames().getInsertions(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Record a newly created user. Rolled-back inserts only cost a false positive.
+     * @param usernameNormalized lower-cased username
+     * @param emailNormalized lower-cased email
+     */
+    public void add(String usernameNormalized, String emailNormalized) {
+        if (!enabled) {
+            return;
+        }
+        filters.add(usernameNormalized, emailNormalized);
+        Filters pending = rebuilding;
+        if (pending != null) {
+            pending.add(usernameNormalized, emailNormalized);
+        }
+    }
+
+    /**
+     * Check whether a username may already be registered.
+     * @param usernameNormalized lower-cased username
+     * @return false if the username is definitely free or the pre-check is disabled
+     */
+    public boolean mightContainUsername(String usernameNormalized) {
+        return enabled && (!loaded || filters.usernames().mightContain(usernameNormalized));
+    }
+
+    /**
+     * Check whether an email may already be registered.
+     * @param emailNormalized lower-cased email
+     * @return false if the email is definitely free or the pre-check is disabled
+     */
+    public boolean mightContainEmail(String emailNormalized) {
+        return enabled && (!loaded || filters.emails().mightContain(emailNormalized));
+    }
+
+    /**
+     * Estimate the current false-positive rate of the username filter.
+     * @return expected false-positive probability, or 0 when disabled
+     */
+    public double getUsernameFalsePositiveRate() {
+        return enabled ? filters.usernames().expectedFalsePositiveRate() : 0;
+    }
+
+    /**
+     * Estimate the current false-positive rate of the email filter.
+     * @return expected false-positive probability, or 0 when disabled
+     */
+    public double getEmailFalsePositiveRate() {
+        return enabled ? filters.emails().expectedFalsePositiveRate() : 0;
+    }
+
+    /**
+     * Get the memory held by both filters' bit arrays.
+     * @return size in bytes, or 0 when disabled
+     */
+    public long getMemoryBytes() {
+        if (!enabled) {
+            return 0;
+        }
+        Filters current = filters;
+        return (current.usernames().getBitCount() + current.emails().getBitCount()) / 8;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        Filters(long expectedUsers, double falsePositiveRate) {
+            this(new BloomFilter(expectedUsers, falsePositiveRate), new BloomFilter(expectedUsers, falsePositiveRate));
+        }
+
+        void add(String usernameNormalized, String emailNormalized) {
+            usernames.add(usernameNormalized);
+            emails.add(emailNormalized);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+/**
+ * Thrown when a batch validation request holds more tokens than {@code jwt.validate.batch.max-size}.
+ * Mapped to 413 Payload Too Large.
+ */
+public class TokenBatchTooLargeException extends RuntimeException {
+
+    private final int maxBatchSize;
+
+    public TokenBatchTooLargeException(int maxBatchSize) {
+        super("At most " + maxBatchSize + " tokens per batch");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
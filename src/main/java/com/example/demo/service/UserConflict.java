@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Which unique user field an insert or update collided with, derived from the violated constraint name.
+ */
+public enum UserConflict {
+
+    USERNAME("Username is already taken"),
+    EMAIL("Email is already registered"),
+    UNKNOWN("Username or email is already taken");
+
+    private final String message;
+
+    UserConflict(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Map a constraint violation to the conflicting field.
+     * @param e violation raised by the insert or update
+     * @return the conflicting field, or UNKNOWN if the constraint cannot be identified
+     */
+    public static UserConflict of(DataIntegrityViolationException e) {
+        String constraint = constraintName(e);
+        if (constraint == null) {
+            return UNKNOWN;
+        }
+        // The normalized constraint names extend the plain ones, so a prefix match covers both
+        if (constraint.contains(User.USERNAME_CONSTRAINT)) {
+            return USERNAME;
+        }
+        if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            return EMAIL;
+        }
+        return UNKNOWN;
+    }
+
+    private static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+        }
+        Throwable root = e.getMostSpecificCause();
+        return root.getMessage() != null ? root.getMessage().toLowerCase(Locale.ROOT) : null;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
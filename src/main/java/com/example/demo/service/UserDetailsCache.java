@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-based in-memory cache of users keyed by username or email.
+ * Reads are lock-free; entries are evicted explicitly whenever a user is mutated.
+ * Cached users are detached entities and must be treated as read-only.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public UserDetailsCache(@Value("${user.cache.ttl-ms:300000}") long ttlMillis,
+                            @Value("${user.cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return the cached user for the key, loading and caching it on a miss.
+     * @param key username or email used for the lookup
+     * @param loader database lookup invoked on a miss
+     * @return Optional containing the user if found
+     */
+    public Optional<User> get(String key, Supplier<Optional<User>> loader) {
+        if (maxSize <= 0 || key == null) {
+            return loader.get();
+        }
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt > System.currentTimeMillis()) {
+                hits.increment();
+                return Optional.of(entry.user);
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+
+        long startGeneration = generation.get();
+        Optional<User> loaded = loader.get();
+        loaded.ifPresent(user -> put(key, user, startGeneration));
+        return loaded;
+    }
+
+    private void put(String key, User user, long startGeneration) {
+        if (generation.get() != startGeneration) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            shrink();
+        }
+        Entry entry = new Entry(user, System.currentTimeMillis() + ttlMillis);
+        entries.put(key, entry);
+        // An eviction raced with the load; drop what may be a stale copy
+        if (generation.get() != startGeneration) {
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Drop expired entries, then arbitrary ones until there is room for one more.
+     */
+    private void shrink() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+        iterator = entries.values().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Evict every entry that refers to the given user, under any lookup key.
+     * Inside a transaction the eviction is repeated after commit so that a
+     * concurrent reload cannot re-cache the pre-commit state.
+     * @param userId the user ID
+     */
+    public void evict(Long userId) {
+        evictNow(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Long userId) {
+        generation.incrementAndGet();
+        if (userId == null) {
+            return;
+        }
+        entries.values().removeIf(entry -> {
+            boolean match = userId.equals(entry.user.getId());
+            if (match) {
+                evictions.increment();
+            }
+            return match;
+        });
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Get cache counters.
+     * @return hit, miss, eviction and size counters
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("size", (long) entries.size());
+        return stats;
+    }
+
+    private record Entry(User user, long expiresAt) {}
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserFilter;
+import com.example.demo.dto.UserSummary;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service class for streaming user exports.
+ * Reads column projections through a forward-only cursor, so no entities are
+ * managed and heap use stays flat regardless of table size.
+ */
+@Service
+public class UserExportService {
+    
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Write matching users as newline-delimited JSON.
+     * @param filter optional role, enabled and creation-time filters
+     * @param out destination stream; flushed but not closed
+     * @return number of users written
+     * @throws IOException if writing fails
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(UserFilter filter, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out);
+        long count = 0;
+        try (Stream<UserSummary> users = userRepository.streamAll(filter.getRole(), filter.getEnabled(),
+                filter.getCreatedFrom(), filter.getCreatedTo())) {
+            Iterator<UserSummary> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                buffered.write(objectMapper.writeValueAsBytes(iterator.next()));
+                buffered.write('\n');
+                count++;
+            }
+        }
+        buffered.flush();
+        return count;
+    }
+}
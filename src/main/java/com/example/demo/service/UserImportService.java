@@ -0,0 +1,211 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserImportResult;
+import com.example.demo.dto.UserImportRow;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Service class for bulk user import.
+ * Streams the upload line by line and processes it in chunks: one set-based uniqueness
+ * query per column, parallel password hashing, and one batched insert transaction per chunk.
+ * Only the current chunk is held in memory; duplicates of rows from earlier chunks are caught
+ * by the uniqueness query, since those rows are already committed.
+ */
+@Service
+public class UserImportService {
+
+    /**
+     * Supported upload formats.
+     */
+    public enum Format {
+        /** {@code username,email,password[,role]} per line, optional header, no quoting. */
+        CSV,
+        /** One JSON object per line with username, email, password and optional role. */
+        NDJSON
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final RegisteredNamesFilter registeredNames;
+
+    @Value("${user.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository,
+                            PasswordEncoder passwordEncoder,
+                            PlatformTransactionManager transactionManager,
+                            Validator validator,
+                            ObjectMapper objectMapper,
+                            RegisteredNamesFilter registeredNames) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.registeredNames = registeredNames;
+    }
+
+    /**
+     * Import users from a streamed body.
+     * Invalid or conflicting lines are reported and skipped; valid lines are imported.
+     * @param body request body
+     * @param format body format
+     * @return import summary
+     * @throws IOException if the body cannot be read
+     */
+    public UserImportResult importUsers(InputStream body, Format format) throws IOException {
+        UserImportResult result = new UserImportResult();
+        // Names within the current chunk, which the uniqueness query cannot see yet
+        Set<String> seenUsernames = new HashSet<>(chunkSize * 2);
+        Set<String> seenEmails = new HashSet<>(chunkSize * 2);
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+
+                UserImportRow row = parse(line, format);
+                if (row == null) {
+                    result.reject(lineNumber, "Malformed line");
+                    continue;
+                }
+                Set<ConstraintViolation<UserImportRow>> violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    result.reject(lineNumber, violations.iterator().next().getMessage());
+                    continue;
+                }
+                if (!seenUsernames.add(User.normalize(row.getUsername()))) {
+                    result.reject(lineNumber, "Duplicate username in import");
+                    continue;
+                }
+                if (!seenEmails.add(User.normalize(row.getEmail()))) {
+                    result.reject(lineNumber, "Duplicate email in import");
+                    continue;
+                }
+
+                chunk.add(new PendingRow(lineNumber, row));
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, result);
+                    chunk.clear();
+                    seenUsernames.clear();
+                    seenEmails.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<PendingRow> chunk, UserImportResult result) {
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                chunk.stream().map(pending -> User.normalize(pending.row().getUsername())).toList()));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+                chunk.stream().map(pending -> User.normalize(pending.row().getEmail())).toList()));
+
+        List<PendingRow> accepted = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (takenUsernames.contains(User.normalize(pending.row().getUsername()))) {
+                result.reject(pending.line(), "Username is already taken");
+            } else if (takenEmails.contains(User.normalize(pending.row().getEmail()))) {
+                result.reject(pending.line(), "Email is already registered");
+            } else {
+                accepted.add(pending);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = encodeAll(accepted.stream().map(pending -> pending.row().getPassword()).toList());
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRow row = accepted.get(i).row();
+            User user = new User(row.getUsername(), row.getEmail(), hashes.get(i));
+            user.setRole(row.getRole() != null ? User.Role.valueOf(row.getRole()) : User.Role.USER);
+            users.add(user);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            result.addImported(users.size());
+            users.forEach(user -> registeredNames.add(user.getUsernameNormalized(), user.getEmailNormalized()));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took a name after the pre-check; isolate the offending rows
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                    result.addImported(1);
+                    registeredNames.add(user.getUsernameNormalized(), user.getEmailNormalized());
+                } catch (DataIntegrityViolationException conflict) {
+                    result.reject(accepted.get(i).line(), UserConflict.of(conflict).getMessage());
+                }
+            }
+        }
+    }
+
+    private List<String> encodeAll(List<String> rawPasswords) {
+        if (passwordEncoder instanceof BoundedPasswordEncoder bounded) {
+            return bounded.encodeAll(rawPasswords);
+        }
+        return rawPasswords.stream().map(passwordEncoder::encode).toList();
+    }
+
+    private UserImportRow parse(String line, Format format) {
+        if (format == Format.NDJSON) {
+            try {
+                return objectMapper.readValue(line, UserImportRow.class);
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+        String[] fields = line.split(",", -1);
+        if (fields.length < 3 || fields.length > 4) {
+            return null;
+        }
+        String role = fields.length == 4 && !fields[3].isBlank() ? fields[3].trim() : null;
+        return new UserImportRow(fields[0].trim(), fields[1].trim(), fields[2], role);
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("username,");
+    }
+
+    private record PendingRow(int line, UserImportRow row) {}
+}
@@ -1,50 +1,94 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.UserFilter;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.TokenRevocationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Service class for user management operations.
- * Implements UserDetailsService for Spring Security integration.
+ * Implements UserDetailsService and UserDetailsPasswordService for Spring Security integration.
  */
 @Service
 @Transactional
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+    
+    public static final int MAX_PAGE_SIZE = 500;
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final RegisteredNamesFilter registeredNames;
+    private final TokenRevocationRegistry revocationRegistry;
     
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                      PasswordEncoder passwordEncoder,
+                      UserDetailsCache userDetailsCache,
+                      RegisteredNamesFilter registeredNames,
+                      TokenRevocationRegistry revocationRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.registeredNames = registeredNames;
+        this.revocationRegistry = revocationRegistry;
     }
     
     /**
      * Load user by username for Spring Security.
+     * Served from the user cache; no transaction is opened on a cache hit.
      * @param username the username identifying the user whose data is required
      * @return UserDetails object
      * @throws UsernameNotFoundException if user is not found
      */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsernameOrEmail(username, username)
+        return findByUsernameOrEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
     
+    /**
+     * Store a rehashed password after a successful login with an outdated encoding.
+     * Called by DaoAuthenticationProvider; the password itself is unchanged, so
+     * issued tokens stay valid.
+     * @param userDetails the authenticated user
+     * @param newPassword the password encoded with the current algorithm and strength
+     * @return updated user
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = lookupByUsernameOrEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userDetailsCache.evict(user.getId());
+        return userRepository.save(user);
+    }
+    
     /**
      * Register a new user.
+     * Inserts directly and relies on the unique constraints to detect taken names, so a
+     * successful registration costs a single round trip. Names the in-memory filter reports
+     * as possibly taken are checked first, which avoids hashing the password for a doomed insert.
      * @param registerRequest registration request containing user details
      * @return created user
      * @throws RuntimeException if username or email already exists
@@ -55,24 +99,33 @@ public class UserService implements UserDetailsService {
             throw new RuntimeException("Passwords do not match");
         }
         
-        // Check if username already exists
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            throw new RuntimeException("Username is already taken");
-        }
-        
-        // Check if email already exists
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("Email is already registered");
-        }
-        
         // Create new user
         User user = new User();
         user.setUsername(registerRequest.getUsername());
         user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
         user.setRole(User.Role.USER);
         
-        return userRepository.save(user);
+        // Fast pre-check: only names that might be taken cost a query
+        if (registeredNames.mightContainUsername(user.getUsernameNormalized())
+                && userRepository.existsByUsernameNormalized(user.getUsernameNormalized())) {
+            throw new RuntimeException(UserConflict.USERNAME.getMessage());
+        }
+        if (registeredNames.mightContainEmail(user.getEmailNormalized())
+                && userRepository.existsByEmailNormalized(user.getEmailNormalized())) {
+            throw new RuntimeException(UserConflict.EMAIL.getMessage());
+        }
+        
+        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        
+        User saved;
+        try {
+            // Flush so a constraint violation surfaces here rather than at commit
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(UserConflict.of(e).getMessage(), e);
+        }
+        registeredNames.add(saved.getUsernameNormalized(), saved.getEmailNormalized());
+        return saved;
     }
     
     /**
@@ -94,12 +147,32 @@ public class UserService implements UserDetailsService {
     }
     
     /**
-     * Find user by username or email.
+     * Find user by username or email, case-insensitively.
+     * Served from the user cache; the returned user must not be modified.
      * @param usernameOrEmail the username or email to search for
      * @return Optional containing the user if found
      */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
-        return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
+        if (usernameOrEmail == null) {
+            return Optional.empty();
+        }
+        return userDetailsCache.get(User.normalize(usernameOrEmail),
+                () -> lookupByUsernameOrEmail(usernameOrEmail));
+    }
+    
+    /**
+     * Route the lookup by input shape so each query hits a single unique index:
+     * anything containing '@' is tried as an email first, everything else as a username.
+     */
+    private Optional<User> lookupByUsernameOrEmail(String usernameOrEmail) {
+        String normalized = User.normalize(usernameOrEmail);
+        if (normalized.indexOf('@') >= 0) {
+            Optional<User> byEmail = userRepository.findByEmailNormalized(normalized);
+            // Usernames created before '@' was disallowed can still contain one
+            return byEmail.isPresent() ? byEmail : userRepository.findByUsernameNormalized(normalized);
+        }
+        return userRepository.findByUsernameNormalized(normalized);
     }
     
     /**
@@ -119,6 +192,56 @@ public class UserService implements UserDetailsService {
         return userRepository.findAll();
     }
     
+    /**
+     * Get a user's public fields by ID, selecting only the needed columns.
+     * @param id the user ID
+     * @return Optional containing the projection if found
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserSummary> findSummaryById(Long id) {
+        return userRepository.findSummaryById(id);
+    }
+    
+    /**
+     * Get a user's public fields by username, selecting only the needed columns.
+     * @param username the username
+     * @return Optional containing the projection if found
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserSummary> findSummaryByUsername(String username) {
+        return userRepository.findSummaryByUsername(username);
+    }
+    
+    /**
+     * Get all users' public fields, selecting only the needed columns.
+     * @return list of user projections
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> getAllUserSummaries() {
+        return userRepository.findAllSummaries();
+    }
+    
+    /**
+     * List users one keyset page at a time.
+     * @param filter optional role, enabled and creation-time filters
+     * @param afterId cursor from the previous page, or null for the first page
+     * @param limit page size, capped at {@link #MAX_PAGE_SIZE}
+     * @return page of users with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> listUsers(UserFilter filter, Long afterId, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to learn whether another page exists
+        List<UserSummary> users = userRepository.findPageAfter(afterId != null ? afterId : 0L,
+                filter.getRole(), filter.getEnabled(), filter.getCreatedFrom(), filter.getCreatedTo(),
+                PageRequest.of(0, size + 1));
+        
+        boolean hasMore = users.size() > size;
+        List<UserSummary> items = hasMore ? users.subList(0, size) : users;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+    
     /**
      * Get all enabled users.
      * @return list of enabled users
@@ -133,6 +256,8 @@ public class UserService implements UserDetailsService {
      * @return updated user
      */
     public User updateUser(User user) {
+        userDetailsCache.evict(user.getId());
+        registeredNames.add(user.getUsernameNormalized(), user.getEmailNormalized());
         return userRepository.save(user);
     }
     
@@ -141,25 +266,26 @@ public class UserService implements UserDetailsService {
      * @param id the user ID to delete
      */
     public void deleteUser(Long id) {
+        userDetailsCache.evict(id);
         userRepository.deleteById(id);
     }
     
     /**
-     * Check if username exists.
+     * Check if username exists, case-insensitively.
      * @param username the username to check
      * @return true if exists, false otherwise
      */
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return userRepository.existsByUsernameNormalized(User.normalize(username));
     }
     
     /**
-     * Check if email exists.
+     * Check if email exists, case-insensitively.
      * @param email the email to check
      * @return true if exists, false otherwise
      */
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userRepository.existsByEmailNormalized(User.normalize(email));
     }
     
     /**
@@ -172,6 +298,9 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setEnabled(enabled);
+        user.incrementTokenVersion();
+        userDetailsCache.evict(userId);
+        revocationRegistry.revokeAllForUser(userId, user.getTokenVersion());
         return userRepository.save(user);
     }
     
@@ -185,6 +314,50 @@ public class UserService implements UserDetailsService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setLockedUntil(null);
+        user.incrementTokenVersion();
+        userDetailsCache.evict(userId);
+        revocationRegistry.revokeAllForUser(userId, user.getTokenVersion());
+        return userRepository.save(user);
+    }
+    
+    /**
+     * Lock an account against logins until the given time, e.g. after repeated failed attempts.
+     * Existing tokens stay valid; changing the password lifts the lock.
+     * @param usernameOrEmail login name as entered
+     * @param until time at which the account unlocks by itself
+     * @return true if a matching account was locked
+     */
+    public boolean lockTemporarily(String usernameOrEmail, Instant until) {
+        Optional<User> found = lookupByUsernameOrEmail(usernameOrEmail);
+        found.ifPresent(user -> {
+            user.setLockedUntil(until);
+            userDetailsCache.evict(user.getId());
+            userRepository.save(user);
+        });
+        return found.isPresent();
+    }
+    
+    /**
+     * Invalidate every access and refresh token issued to the user so far.
+     * Takes effect on the next request, in stateless mode too.
+     * @param userId the user ID
+     * @return updated user
+     */
+    public User revokeAllTokens(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.incrementTokenVersion();
+        userDetailsCache.evict(userId);
+        revocationRegistry.revokeAllForUser(userId, user.getTokenVersion());
         return userRepository.save(user);
     }
+    
+    /**
+     * Get user cache counters.
+     * @return hit, miss, eviction and size counters
+     */
+    public Map<String, Long> getUserCacheStats() {
+        return userDetailsCache.getStats();
+    }
 }
@@ -1,15 +1,29 @@
 package com.example.demo.util;
 
+import com.example.demo.entity.User;
+import com.example.demo.security.RoleAuthorityResolver;
+import com.example.demo.security.SigningKeyManager;
+import com.example.demo.security.TokenRevocationRegistry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -25,8 +39,102 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
     
+    @Value("${jwt.verify-cache.size:0}") // 0 disables the verified-token cache
+    private int verifyCacheSize;
+    
+    @Value("${jwt.max-length:8192}") // longer bearer values are rejected before parsing
+    private int maxTokenLength = 8192;
+    
+    // Key and parser are immutable and thread-safe; rebuilt together on rotation
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenRevocationRegistry revocationRegistry;
+    private SigningKeyManager signingKeyManager;
+    private RoleAuthorityResolver roleAuthorityResolver;
+    // Set when signing with asymmetric keys; null in HMAC mode
+    private SigningKeyRing keyRing;
+    // Header algorithms worth verifying; anything else is rejected by the structural pre-check
+    private Set<String> acceptedAlgorithms = Set.of("HS256", "HS384", "HS512");
+    private final Map<TokenPrecheck.Rejection, LongAdder> precheckRejections =
+            new EnumMap<>(TokenPrecheck.Rejection.class);
+    
+    public JwtUtil() {
+        for (TokenPrecheck.Rejection rejection : TokenPrecheck.Rejection.values()) {
+            precheckRejections.put(rejection, new LongAdder());
+        }
+    }
+    
+    /**
+     * Consult the revocation registry after every successful verification.
+     * @param revocationRegistry registry of revoked tokens and per-user token version floors
+     */
+    @Autowired(required = false)
+    public void setRevocationRegistry(TokenRevocationRegistry revocationRegistry) {
+        this.revocationRegistry = revocationRegistry;
+    }
+    
+    /**
+     * Put the resolved role authorities into the roles claim instead of the role's own authority.
+     * @param roleAuthorityResolver resolver of the configured role hierarchy
+     */
+    @Autowired(required = false)
+    public void setRoleAuthorityResolver(RoleAuthorityResolver roleAuthorityResolver) {
+        this.roleAuthorityResolver = roleAuthorityResolver;
+    }
+    
+    /**
+     * Sign with the asymmetric key ring instead of the HMAC secret when it is enabled.
+     * @param signingKeyManager owner of the asymmetric signing keys
+     */
+    @Autowired(required = false)
+    public void setSigningKeyManager(SigningKeyManager signingKeyManager) {
+        this.signingKeyManager = signingKeyManager;
+    }
+    
+    /**
+     * Build the signing key and parser once at startup.
+     */
+    @PostConstruct
+    public void init() {
+        if (verifyCacheSize > 0) {
+            verifiedTokenCache = new VerifiedTokenCache(verifyCacheSize);
+        }
+        if (signingKeyManager != null && signingKeyManager.isEnabled()) {
+            // The ring resolves the verification key from the kid header, so rotation needs no new parser
+            keyRing = signingKeyManager.getKeyRing();
+            acceptedAlgorithms = Set.of(signingKeyManager.getAlgorithmId());
+            parser = Jwts.parser()
+                    .keyLocator(keyRing)
+                    .build();
+        } else {
+            rotateSecret(secret);
+        }
+    }
+    
+    /**
+     * Replace the HMAC secret and rebuild the cached key and parser.
+     * @param newSecret new signing secret
+     * @throws IllegalStateException when signing with asymmetric keys, which rotate through SigningKeyManager
+     */
+    public synchronized void rotateSecret(String newSecret) {
+        if (keyRing != null) {
+            throw new IllegalStateException("Asymmetric keys are rotated through SigningKeyManager");
+        }
+        SecretKey key = Keys.hmacShaKeyFor(newSecret.getBytes());
+        JwtParser newParser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.secret = newSecret;
+        this.parser = newParser;
+        this.signingKey = key;
+        if (verifiedTokenCache != null) {
+            verifiedTokenCache.clear();
+        }
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
     
     /**
@@ -64,20 +172,84 @@ public class JwtUtil {
      * @return all claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
     
     /**
-     * Check if JWT token is expired.
+     * Parse and verify JWT token once, returning the claims callers need.
+     * Signature and expiration are both checked by the parser; repeat tokens
+     * are served from the verified-token cache when it is enabled.
      * @param token JWT token
-     * @return true if expired, false otherwise
+     * @return verified token, or empty if the token is invalid or expired
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Optional<VerifiedToken> verifyToken(String token) {
+        return verify(token).toOptional();
+    }
+    
+    /**
+     * Parse and verify JWT token once, keeping the rejection reason on failure.
+     * Structurally invalid tokens are rejected before hashing or parsing.
+     * Revocation is checked on every call, including cache hits.
+     * @param token JWT token
+     * @return verification outcome
+     */
+    public TokenVerification verify(String token) {
+        TokenPrecheck.Rejection rejection = TokenPrecheck.check(token, maxTokenLength, acceptedAlgorithms);
+        if (rejection != null) {
+            precheckRejections.get(rejection).increment();
+            return TokenVerification.rejected(rejection.failure());
+        }
+        VerifiedTokenCache cache = verifiedTokenCache;
+        byte[] digest = null;
+        // Read before the parser, so a rotation in between discards this result instead of caching it
+        long generation = 0;
+        if (cache != null) {
+            generation = cache.generation();
+            digest = VerifiedTokenCache.digest(token);
+            VerifiedToken cached = cache.get(digest, System.currentTimeMillis());
+            if (cached != null) {
+                return checkRevocation(cached);
+            }
+        }
+        try {
+            VerifiedToken verified = VerifiedToken.from(extractAllClaims(token));
+            if (digest != null) {
+                cache.put(digest, verified, generation);
+            }
+            return checkRevocation(verified);
+        } catch (ExpiredJwtException e) {
+            return TokenVerification.rejected(TokenVerification.Failure.EXPIRED);
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            return TokenVerification.rejected(TokenVerification.Failure.INVALID_SIGNATURE);
+        } catch (UnsupportedJwtException e) {
+            return TokenVerification.rejected(TokenVerification.Failure.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenVerification.rejected(TokenVerification.Failure.MALFORMED);
+        }
+    }
+    
+    private TokenVerification checkRevocation(VerifiedToken verified) {
+        if (revocationRegistry != null && revocationRegistry.isRevoked(verified)) {
+            return TokenVerification.rejected(TokenVerification.Failure.REVOKED);
+        }
+        return TokenVerification.valid(verified);
+    }
+    
+    /**
+     * Get the number of tokens rejected by the structural pre-check for a reason.
+     * @param rejection pre-check rejection reason
+     * @return rejections since startup
+     */
+    public long getPrecheckRejections(TokenPrecheck.Rejection rejection) {
+        return precheckRejections.get(rejection).sum();
+    }
+    
+    /**
+     * Get the verified-token cache, if enabled.
+     * @return cache or null when disabled
+     */
+    public VerifiedTokenCache getVerifiedTokenCache() {
+        return verifiedTokenCache;
     }
     
     /**
@@ -87,6 +259,19 @@ public class JwtUtil {
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        Collection<? extends GrantedAuthority> authorities = roleAuthorityResolver != null
+                ? roleAuthorityResolver.getAuthorities(userDetails) : userDetails.getAuthorities();
+        claims.put(VerifiedToken.ROLES_CLAIM, authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        if (userDetails instanceof User user) {
+            // Identity claims let stateless mode rebuild the principal without a lookup
+            if (user.getId() != null) {
+                claims.put(VerifiedToken.USER_ID_CLAIM, user.getId());
+            }
+            claims.put(VerifiedToken.ROLE_CLAIM, user.getRole().name());
+            claims.put(VerifiedToken.VERSION_CLAIM, user.getTokenVersion());
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
@@ -107,13 +292,27 @@ public class JwtUtil {
      * @return JWT token
      */
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
-                .compact();
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        if (keyRing != null) {
+            SigningKeyRing.Entry key = keyRing.current(Instant.now());
+            return builder.header().keyId(key.kid()).and()
+                    .signWith(key.privateKey(), key.algorithm())
+                    .compact();
+        }
+        return builder.signWith(getSigningKey()).compact();
+    }
+    
+    /**
+     * Get the public verification keys as a JSON Web Key Set.
+     * @return JWKS document, or empty when tokens are signed with the HMAC secret
+     */
+    public Optional<Map<String, Object>> getJwks() {
+        return keyRing != null ? Optional.of(keyRing.toJwks()) : Optional.empty();
     }
     
     /**
@@ -123,8 +322,9 @@ public class JwtUtil {
      * @return true if valid, false otherwise
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verifyToken(token)
+                .map(verified -> verified.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
     
     /**
@@ -133,15 +333,7 @@ public class JwtUtil {
      * @return true if valid, false otherwise
      */
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verifyToken(token).isPresent();
     }
     
     /**
@@ -0,0 +1,105 @@
+package com.example.demo.util;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set of asymmetric JWT keys identified by {@code kid}.
+ * The newest key whose activation time has passed signs new tokens; every key in the ring
+ * verifies, so tokens signed before a rotation stay valid. Also serves as the parser's key
+ * locator, resolving the verification key from the token's {@code kid} header.
+ */
+public class SigningKeyRing extends LocatorAdapter<Key> {
+
+    /**
+     * One key pair of the ring.
+     * @param kid key ID written to the token header
+     * @param algorithm JWS signature algorithm
+     * @param privateKey signing key
+     * @param publicKey verification key, published in the JWKS
+     * @param activatesAt time from which the key may sign; it verifies from the moment it is loaded
+     */
+    public record Entry(String kid, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey,
+                        Instant activatesAt) {}
+
+    private volatile Map<String, Entry> keys = Map.of();
+
+    /**
+     * Replace the ring's contents.
+     * @param entries keys to keep
+     */
+    public void replace(Collection<Entry> entries) {
+        Map<String, Entry> byKid = new LinkedHashMap<>();
+        entries.stream()
+                .sorted(Comparator.comparing(Entry::activatesAt))
+                .forEach(entry -> byKid.put(entry.kid(), entry));
+        keys = byKid;
+    }
+
+    /**
+     * Get the key that signs new tokens: the newest active key, or the oldest key
+     * if none has activated yet.
+     * @param now current time
+     * @return signing key
+     * @throws IllegalStateException if the ring is empty
+     */
+    public Entry current(Instant now) {
+        Entry current = null;
+        for (Entry entry : keys.values()) {
+            if (current == null || !entry.activatesAt().isAfter(now)) {
+                current = entry;
+            }
+        }
+        if (current == null) {
+            throw new IllegalStateException("No signing key available");
+        }
+        return current;
+    }
+
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    public Collection<Entry> getEntries() {
+        return keys.values();
+    }
+
+    /**
+     * Build the JSON Web Key Set of all verification keys.
+     * @return JWKS document as a map ready for JSON serialization
+     */
+    public Map<String, Object> toJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (Entry entry : keys.values()) {
+            PublicJwk<PublicKey> jwk = Jwks.builder()
+                    .key(entry.publicKey())
+                    .id(entry.kid())
+                    .algorithm(entry.algorithm().getId())
+                    .publicKeyUse("sig")
+                    .build();
+            jwks.add(new LinkedHashMap<>(jwk));
+        }
+        return Map.of("keys", jwks);
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        Entry entry = kid != null ? keys.get(kid) : null;
+        return entry != null ? entry.publicKey() : null;
+    }
+}
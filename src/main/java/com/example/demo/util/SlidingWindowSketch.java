@@ -0,0 +1,159 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate per-key event counts over a sliding time window, in fixed memory.
+ * Each fixed window is a count-min sketch; the sliding count adds the current window to the
+ * previous one, weighted by how much of it the sliding window still overlaps. Hash collisions
+ * can only inflate a count, never hide events. Counters are atomic arrays, so recording and
+ * estimating are lock-free; a few events racing with a window roll-over may be dropped.
+ */
+public class SlidingWindowSketch {
+
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final long windowMillis;
+    // Fixed windows alternate between the two slots by epoch parity
+    private final Window[] windows;
+
+    /**
+     * @param width counters per sketch row, rounded up to a power of two
+     * @param windowMillis sliding window length
+     */
+    public SlidingWindowSketch(int width, long windowMillis) {
+        if (width <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("Width and window must be positive");
+        }
+        this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.windowMillis = windowMillis;
+        this.windows = new Window[] {new Window(this.width), new Window(this.width)};
+    }
+
+    /**
+     * Record one event for the key.
+     * @param key event key
+     * @param now current time, epoch millis
+     * @return estimated events for the key in the sliding window, including this one
+     */
+    public int record(String key, long now) {
+        long epoch = now / windowMillis;
+        long h1 = BloomFilter.hash64(key);
+        long h2 = BloomFilter.mix(h1);
+        Window current = window(epoch);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, current.counters.incrementAndGet(index(row, h1, h2)));
+        }
+        return min + previous(epoch, now, h1, h2);
+    }
+
+    /**
+     * Estimate the events for the key in the sliding window without recording one.
+     * @param key event key
+     * @param now current time, epoch millis
+     * @return estimated event count
+     */
+    public int estimate(String key, long now) {
+        long epoch = now / windowMillis;
+        long h1 = BloomFilter.hash64(key);
+        long h2 = BloomFilter.mix(h1);
+        return count(windows[(int) (epoch & 1)], epoch, h1, h2) + previous(epoch, now, h1, h2);
+    }
+
+    /**
+     * Time until the sliding estimate for the key falls below the limit if no further events arrive.
+     * The previous window's share decays as the sliding window moves past it, so this is usually
+     * well before the current fixed window ends.
+     * @param key event key
+     * @param limit estimate at which the key counts as over the limit
+     * @param now current time, epoch millis
+     * @return milliseconds until the estimate is below the limit, 0 if it already is
+     */
+    public long millisUntilBelow(String key, int limit, long now) {
+        long epoch = now / windowMillis;
+        long h1 = BloomFilter.hash64(key);
+        long h2 = BloomFilter.mix(h1);
+        int current = count(windows[(int) (epoch & 1)], epoch, h1, h2);
+        int previous = count(windows[(int) ((epoch - 1) & 1)], epoch - 1, h1, h2);
+        long offset = now % windowMillis;
+        long decayed = offsetBelow(previous, limit - 1 - current);
+        if (decayed < windowMillis) {
+            return Math.max(0, decayed - offset);
+        }
+        // Only once the current window has become the previous one and decayed far enough
+        return windowMillis - offset + offsetBelow(current, limit - 1);
+    }
+
+    /**
+     * @return bytes held by the counters
+     */
+    public long getMemoryBytes() {
+        return 2L * DEPTH * width * Integer.BYTES;
+    }
+
+    /**
+     * Smallest offset into a window at which a previous-window count, weighted by the remaining
+     * overlap, rounds to at most the allowance; the window length if no offset in it does.
+     */
+    private long offsetBelow(int count, int allowance) {
+        if (allowance < 0) {
+            return windowMillis;
+        }
+        if (count <= allowance) {
+            return 0;
+        }
+        // Math.round(count * overlap) <= allowance exactly when count * overlap < allowance + 0.5
+        return (long) Math.floor(windowMillis * (1.0 - (allowance + 0.5) / count)) + 1;
+    }
+
+    private int previous(long epoch, long now, long h1, long h2) {
+        int count = count(windows[(int) ((epoch - 1) & 1)], epoch - 1, h1, h2);
+        if (count == 0) {
+            return 0;
+        }
+        double overlap = 1.0 - (double) (now % windowMillis) / windowMillis;
+        return (int) Math.round(count * overlap);
+    }
+
+    private int count(Window window, long epoch, long h1, long h2) {
+        if (window.epoch.get() != epoch) {
+            return 0;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, window.counters.get(index(row, h1, h2)));
+        }
+        return min;
+    }
+
+    /**
+     * Get the slot for the epoch, clearing it first if it still holds an older window.
+     */
+    private Window window(long epoch) {
+        Window window = windows[(int) (epoch & 1)];
+        long seen = window.epoch.get();
+        if (seen < epoch && window.epoch.compareAndSet(seen, epoch)) {
+            for (int i = 0; i < window.counters.length(); i++) {
+                window.counters.set(i, 0);
+            }
+        }
+        return window;
+    }
+
+    private int index(int row, long h1, long h2) {
+        return row * width + (int) ((h1 + row * h2) & (width - 1));
+    }
+
+    private static final class Window {
+
+        final AtomicIntegerArray counters;
+        final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+
+        Window(int width) {
+            this.counters = new AtomicIntegerArray(DEPTH * width);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size table of token buckets, one per key, for request rate limiting.
+ * Each bucket is a single atomic "theoretical arrival time" (the generic cell rate algorithm,
+ * equivalent to a token bucket), so a check is one CAS and allocates nothing once the key has
+ * a bucket. Keys hash into a small probe window of the table; a bucket that has refilled
+ * completely is idle and its slot is reused, which loses nothing. Only when the whole window
+ * is busy is the fullest bucket evicted, briefly granting that key a fresh burst.
+ */
+public class TokenBucketStore {
+
+    private static final int PROBE_WINDOW = 8;
+
+    /**
+     * Bucket size and refill rate.
+     * @param capacity maximum burst, in requests
+     * @param intervalNanos time to refill one request
+     */
+    public record Quota(int capacity, long intervalNanos) {
+
+        /**
+         * @param capacity maximum burst, in requests
+         * @param refillPerSecond sustained requests per second
+         * @return quota refilling at the given rate
+         */
+        public static Quota perSecond(int capacity, double refillPerSecond) {
+            if (capacity <= 0 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Capacity and refill rate must be positive");
+            }
+            return new Quota(capacity, Math.max(1, (long) (1_000_000_000L / refillPerSecond)));
+        }
+
+        /**
+         * @return time for an empty bucket to refill completely
+         */
+        public long burstNanos() {
+            return capacity * intervalNanos;
+        }
+    }
+
+    private final AtomicReferenceArray<Bucket> slots;
+    private final int mask;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxKeys table size, rounded up to a power of two
+     */
+    public TokenBucketStore(int maxKeys) {
+        int size = Integer.highestOneBit(Math.max(PROBE_WINDOW, maxKeys) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Take one request from the key's bucket.
+     * @param key bucket key, e.g. the token subject
+     * @param quota bucket size and refill rate
+     * @param now current {@link System#nanoTime()}
+     * @return when allowed, a positive value: nanoseconds until the bucket is full again;
+     *         when rejected, a negative value whose magnitude is the wait until a request is allowed
+     */
+    public long tryConsume(String key, Quota quota, long now) {
+        AtomicLong bucket = bucket(key, now);
+        long burst = quota.burstNanos();
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + quota.intervalNanos();
+            long debt = next - now;
+            if (debt > burst) {
+                return -(debt - burst);
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return debt;
+            }
+        }
+    }
+
+    /**
+     * Requests still available after a successful {@link #tryConsume}.
+     * @param debt positive result of tryConsume
+     * @param quota quota it was called with
+     * @return remaining requests in the bucket
+     */
+    public static long remaining(long debt, Quota quota) {
+        return (quota.burstNanos() - debt) / quota.intervalNanos();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getMaxKeys() {
+        return slots.length();
+    }
+
+    private Bucket bucket(String key, long now) {
+        int start = spread(key.hashCode());
+        while (true) {
+            Bucket reusable = null;
+            int reusableIndex = -1;
+            Bucket fullest = null;
+            int fullestIndex = -1;
+            for (int i = 0; i < PROBE_WINDOW; i++) {
+                int index = (start + i) & mask;
+                Bucket bucket = slots.get(index);
+                if (bucket == null || bucket.get() <= now) {
+                    if (bucket != null && bucket.key.equals(key)) {
+                        return bucket;
+                    }
+                    if (reusableIndex < 0) {
+                        reusable = bucket;
+                        reusableIndex = index;
+                    }
+                } else if (bucket.key.equals(key)) {
+                    return bucket;
+                } else if (fullest == null || bucket.get() < fullest.get()) {
+                    fullest = bucket;
+                    fullestIndex = index;
+                }
+            }
+            Bucket created = new Bucket(key, now);
+            if (reusableIndex >= 0) {
+                if (slots.compareAndSet(reusableIndex, reusable, created)) {
+                    return created;
+                }
+            } else if (slots.compareAndSet(fullestIndex, fullest, created)) {
+                evictions.increment();
+                return created;
+            }
+            // Lost a race for the slot; rescan, the key may have been inserted meanwhile
+        }
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        return hash ^ (hash >>> 13);
+    }
+
+    /**
+     * Theoretical arrival time of the next request, in nanoTime; the bucket is full once it has passed.
+     */
+    private static final class Bucket extends AtomicLong {
+
+        final String key;
+
+        Bucket(String key, long now) {
+            super(now);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Cheap structural checks that reject obviously bad tokens before any parsing or signature work.
+ * A compact JWS is three non-empty base64url segments; the header must name an accepted
+ * algorithm. Everything is checked in one pass over the characters without exceptions, so
+ * junk tokens from bots cost about as much as reading them.
+ */
+public final class TokenPrecheck {
+
+    // Generous for any header this service writes (alg, kid); anything longer is not ours
+    private static final int MAX_HEADER_LENGTH = 256;
+
+    /**
+     * Why a token failed the structural check.
+     */
+    public enum Rejection {
+        EMPTY("empty", TokenVerification.Failure.MALFORMED),
+        TOO_LONG("too_long", TokenVerification.Failure.MALFORMED),
+        SEGMENTS("segments", TokenVerification.Failure.MALFORMED),
+        CHARACTERS("characters", TokenVerification.Failure.MALFORMED),
+        HEADER("header", TokenVerification.Failure.MALFORMED),
+        ALGORITHM("algorithm", TokenVerification.Failure.UNSUPPORTED);
+
+        private final String tag;
+        private final TokenVerification.Failure failure;
+
+        Rejection(String tag, TokenVerification.Failure failure) {
+            this.tag = tag;
+            this.failure = failure;
+        }
+
+        /**
+         * @return lower-case name used in metric tags
+         */
+        public String tag() {
+            return tag;
+        }
+
+        /**
+         * @return verification failure reported for this rejection
+         */
+        public TokenVerification.Failure failure() {
+            return failure;
+        }
+    }
+
+    private TokenPrecheck() {
+    }
+
+    /**
+     * Check the token's shape and header algorithm.
+     * @param token compact JWS
+     * @param maxLength maximum accepted token length
+     * @param algorithms accepted JWS algorithm IDs
+     * @return the rejection reason, or null if the token may be verified
+     */
+    public static Rejection check(String token, int maxLength, Collection<String> algorithms) {
+        if (token == null || token.isEmpty()) {
+            return Rejection.EMPTY;
+        }
+        int length = token.length();
+        if (length > maxLength) {
+            return Rejection.TOO_LONG;
+        }
+
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return Rejection.SEGMENTS;
+                }
+            } else if (!isBase64Url(c)) {
+                return Rejection.CHARACTERS;
+            }
+        }
+        if (firstDot <= 0 || secondDot < 0 || secondDot == firstDot + 1 || secondDot == length - 1) {
+            return Rejection.SEGMENTS;
+        }
+
+        // A base64url segment can never leave a single character in its last group
+        if (firstDot > MAX_HEADER_LENGTH || firstDot % 4 == 1) {
+            return Rejection.HEADER;
+        }
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, firstDot)),
+                StandardCharsets.UTF_8);
+        return hasAcceptedAlgorithm(header, algorithms) ? null : Rejection.ALGORITHM;
+    }
+
+    /**
+     * Find the "alg" member of the decoded header and compare its value without building substrings.
+     */
+    private static boolean hasAcceptedAlgorithm(String header, Collection<String> algorithms) {
+        int key = header.indexOf("\"alg\"");
+        if (key < 0) {
+            return false;
+        }
+        int i = skipWhitespace(header, key + 5);
+        if (i >= header.length() || header.charAt(i) != ':') {
+            return false;
+        }
+        i = skipWhitespace(header, i + 1);
+        if (i >= header.length() || header.charAt(i) != '"') {
+            return false;
+        }
+        int start = i + 1;
+        for (String algorithm : algorithms) {
+            int end = start + algorithm.length();
+            if (header.startsWith(algorithm, start) && end < header.length() && header.charAt(end) == '"') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipWhitespace(String value, int from) {
+        int i = from;
+        while (i < value.length() && Character.isWhitespace(value.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.util;
+
+import java.util.Optional;
+
+/**
+ * Outcome of verifying a JWT: either the verified token or the reason it was rejected.
+ */
+public final class TokenVerification {
+
+    /**
+     * Why a token was rejected.
+     */
+    public enum Failure {
+        EXPIRED("expired"),
+        MALFORMED("malformed"),
+        INVALID_SIGNATURE("invalid_signature"),
+        UNSUPPORTED("unsupported"),
+        REVOKED("revoked");
+
+        private final String tag;
+
+        Failure(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * @return lower-case name used in metric tags and API responses
+         */
+        public String tag() {
+            return tag;
+        }
+    }
+
+    // Rejections carry no per-token state, so one instance per reason is shared
+    private static final TokenVerification[] REJECTED = new TokenVerification[Failure.values().length];
+
+    static {
+        for (Failure failure : Failure.values()) {
+            REJECTED[failure.ordinal()] = new TokenVerification(null, failure);
+        }
+    }
+
+    private final VerifiedToken token;
+    private final Failure failure;
+
+    private TokenVerification(VerifiedToken token, Failure failure) {
+        this.token = token;
+        this.failure = failure;
+    }
+
+    public static TokenVerification valid(VerifiedToken token) {
+        return new TokenVerification(token, null);
+    }
+
+    public static TokenVerification rejected(Failure failure) {
+        return REJECTED[failure.ordinal()];
+    }
+
+    public boolean isValid() {
+        return token != null;
+    }
+
+    public VerifiedToken getToken() {
+        return token;
+    }
+
+    public Failure getFailure() {
+        return failure;
+    }
+
+    public Optional<VerifiedToken> toOptional() {
+        return Optional.ofNullable(token);
+    }
+}
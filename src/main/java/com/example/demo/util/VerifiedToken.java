@@ -0,0 +1,114 @@
+package com.example.demo.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable result of a single JWT parse and signature verification.
+ * Carries the claims the application needs so callers never re-parse the token.
+ */
+public final class VerifiedToken {
+
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
+
+    private final String id;
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final List<String> roles;
+    private final Long userId;
+    private final String role;
+    private final Long version;
+
+    public VerifiedToken(String subject, Date issuedAt, Date expiration, List<String> roles) {
+        this(null, subject, issuedAt, expiration, roles, null, null, null);
+    }
+
+    public VerifiedToken(String id, String subject, Date issuedAt, Date expiration, List<String> roles,
+                         Long userId, String role, Long version) {
+        this.id = id;
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.userId = userId;
+        this.role = role;
+        this.version = version;
+    }
+
+    /**
+     * Build a verified token from already verified claims.
+     * @param claims verified JWT claims
+     * @return verified token
+     */
+    static VerifiedToken from(Claims claims) {
+        Object rawRoles = claims.get(ROLES_CLAIM);
+        List<String> roles = List.of();
+        if (rawRoles instanceof Collection<?> collection) {
+            roles = collection.stream().map(String::valueOf).toList();
+        }
+        Object rawRole = claims.get(ROLE_CLAIM);
+        return new VerifiedToken(claims.getId(), claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(),
+                roles, toLong(claims.get(USER_ID_CLAIM)), rawRole != null ? rawRole.toString() : null,
+                toLong(claims.get(VERSION_CLAIM)));
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * @return the jti claim, or null for tokens issued without one
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "VerifiedToken{" +
+                "id='" + id + '\'' +
+                ", subject='" + subject + '\'' +
+                ", issuedAt=" + issuedAt +
+                ", expiration=" + expiration +
+                ", roles=" + roles +
+                ", userId=" + userId +
+                ", role='" + role + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
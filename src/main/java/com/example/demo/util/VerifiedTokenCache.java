@@ -0,0 +1,124 @@
+package com.example.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, direct-mapped cache of verified tokens keyed by the SHA-256 digest of the raw token.
+ * Memory is capped by the slot count, reads and writes are lock-free, and colliding
+ * tokens simply overwrite each other. Entries are never returned at or past their expiry.
+ * Every entry carries the generation it was verified in; {@link #clear()} starts a new generation,
+ * so a verification that raced a key rotation can never be served afterwards.
+ */
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity maximum number of cached tokens, rounded up to a power of two
+     */
+    public VerifiedTokenCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Compute the cache key for a raw token.
+     * @param token raw JWT token
+     * @return SHA-256 digest of the token
+     */
+    public static byte[] digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return md.digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read before verifying a token with the current key, and pass the value to {@link #put}.
+     * @return current generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Look up a previously verified token.
+     * @param digest digest returned by {@link #digest(String)}
+     * @param nowMillis current time in milliseconds
+     * @return verified token, or null on a miss or if the cached entry has expired
+     */
+    public VerifiedToken get(byte[] digest, long nowMillis) {
+        int index = indexOf(digest);
+        Entry entry = slots.get(index);
+        if (entry != null && Arrays.equals(entry.digest, digest)) {
+            if (nowMillis < entry.expiresAt && entry.generation == generation.get()) {
+                hits.increment();
+                return entry.token;
+            }
+            slots.compareAndSet(index, entry, null);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Cache a verified token until its expiration, unless the cache was cleared since verification began.
+     * @param digest digest returned by {@link #digest(String)}
+     * @param token verified token
+     * @param verifiedIn {@link #generation()} read before the token was verified
+     */
+    public void put(byte[] digest, VerifiedToken token, long verifiedIn) {
+        if (token.getExpiration() == null || verifiedIn != generation.get()) {
+            return;
+        }
+        slots.set(indexOf(digest), new Entry(digest, token, token.getExpiration().getTime(), verifiedIn));
+    }
+
+    /**
+     * Drop every entry, e.g. after the signing key changes.
+     * Entries from earlier generations are never served, including one stored by a put racing this call.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    private int indexOf(byte[] digest) {
+        int hash = (digest[0] & 0xff) | (digest[1] & 0xff) << 8 | (digest[2] & 0xff) << 16 | (digest[3] & 0xff) << 24;
+        return hash & mask;
+    }
+
+    private record Entry(byte[] digest, VerifiedToken token, long expiresAt, long generation) {}
+}
@@ -0,0 +1,123 @@
+package com.example.demo.config;
+
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.JwtWebFilter;
+import com.example.demo.security.RoleAuthorityResolver;
+import com.example.demo.service.ReactiveUserService;
+import com.example.demo.util.JwtUtil;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Spring Security configuration for the reactive profile (WebFlux and R2DBC).
+ * Accepts the same tokens as {@link SecurityConfig} and applies the same access rules, but
+ * never blocks an event-loop thread: users are looked up over R2DBC and BCrypt runs on the
+ * bounded password-hashing pool, with a full queue failing fast instead of queueing up.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String USER_NOT_FOUND_PASSWORD = "userNotFoundPassword";
+
+    /**
+     * Scheduler over the password-hashing pool, so reactive logins share its thread and queue limits.
+     * The pool belongs to the password encoder, which shuts it down.
+     */
+    @Bean(destroyMethod = "")
+    public Scheduler passwordHashScheduler(BoundedPasswordEncoder passwordEncoder) {
+        return Schedulers.fromExecutorService(passwordEncoder.getExecutor(), "password-hash");
+    }
+
+    /**
+     * Authentication manager that loads users reactively and hashes on the bounded pool.
+     * The unwrapped encoder is used because the scheduler already moves the hash off the event loop.
+     * Unknown users cost a dummy hash, as in DaoAuthenticationProvider, so response times do not
+     * reveal which accounts exist.
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserService userService,
+                                                                       BoundedPasswordEncoder passwordEncoder,
+                                                                       Scheduler passwordHashScheduler) {
+        PasswordEncoder encoder = passwordEncoder.getDelegate();
+        String userNotFoundEncodedPassword = encoder.encode(USER_NOT_FOUND_PASSWORD);
+        ReactiveUserDetailsService timingSafeUserService = username -> userService.findByUsername(username)
+                .switchIfEmpty(Mono.defer(() -> Mono.fromRunnable(
+                                () -> encoder.matches(USER_NOT_FOUND_PASSWORD, userNotFoundEncodedPassword))
+                        .subscribeOn(passwordHashScheduler)
+                        .then(Mono.<UserDetails>empty())));
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(timingSafeUserService);
+        manager.setPasswordEncoder(encoder);
+        manager.setScheduler(passwordHashScheduler);
+        return manager;
+    }
+
+    /**
+     * Security filter chain configuration.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtUtil jwtUtil,
+                                                         ReactiveUserService userService,
+                                                         RoleAuthorityResolver roleAuthorities,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${jwt.stateless:false}") boolean stateless) {
+        return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                // Requests without a valid token stay unauthenticated rather than anonymous
+                .anonymous(ServerHttpSecurity.AnonymousSpec::disable)
+                // Every request carries its token; nothing is kept between requests
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exception ->
+                        exception.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(auth ->
+                        auth.pathMatchers("/api/auth/**").permitAll()
+                            .pathMatchers("/api/public/**").permitAll()
+                            .pathMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                            .pathMatchers("/actuator/**").hasRole("ADMIN")
+                            .anyExchange().authenticated())
+                .addFilterAt(new JwtWebFilter(jwtUtil, userService, roleAuthorities, meterRegistry, stateless),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * JDBC connection settings for the components that still use JPA.
+     * Spring Boot backs off its own DataSource once an R2DBC ConnectionFactory exists.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
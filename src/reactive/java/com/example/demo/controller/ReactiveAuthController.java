@@ -0,0 +1,274 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.AuthResponse;
+import com.example.demo.dto.LoginRequest;
+import com.example.demo.dto.RefreshTokenRequest;
+import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.TokenBatchRequest;
+import com.example.demo.dto.TokenValidationResult;
+import com.example.demo.entity.User;
+import com.example.demo.security.LoginAttemptLimiter;
+import com.example.demo.security.LoginThrottledException;
+import com.example.demo.security.PasswordHashingBusyException;
+import com.example.demo.security.TokenRevocationRegistry;
+import com.example.demo.service.ReactiveUserService;
+import com.example.demo.service.RefreshTokenException;
+import com.example.demo.service.RefreshTokenService;
+import com.example.demo.service.UserService;
+import com.example.demo.util.JwtUtil;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST Controller for authentication endpoints on the reactive profile.
+ * Issues the same access and refresh tokens as {@link AuthController}, without blocking: the
+ * user is loaded over R2DBC and the password is checked on the bounded hashing pool. Refresh
+ * tokens are stored through JPA, so issuing, rotating and revoking them runs on
+ * {@link Schedulers#boundedElastic()}, as does registration, which inserts through
+ * {@link UserService} so it shares the uniqueness checks and name filter of the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/auth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReactiveAuthController {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final ReactiveUserService userService;
+    private final UserService registrationService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.validate.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Autowired
+    public ReactiveAuthController(ReactiveAuthenticationManager authenticationManager,
+                                  ReactiveUserService userService,
+                                  UserService registrationService,
+                                  LoginAttemptLimiter loginAttemptLimiter,
+                                  RefreshTokenService refreshTokenService,
+                                  TokenRevocationRegistry revocationRegistry,
+                                  JwtUtil jwtUtil) {
+        this.authenticationManager = authenticationManager;
+        this.userService = userService;
+        this.registrationService = registrationService;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.revocationRegistry = revocationRegistry;
+        this.jwtUtil = jwtUtil;
+    }
+
+    /**
+     * User login endpoint.
+     * Attempts from throttled accounts or clients are rejected before any password is hashed.
+     * @param loginRequest login credentials
+     * @param request server request, for the client address used in throttling
+     * @return JWT access token, refresh token and user information
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                                 ServerHttpRequest request) {
+        String usernameOrEmail = loginRequest.getUsernameOrEmail();
+        String clientAddress = clientAddress(request);
+        return Mono.fromRunnable(() -> loginAttemptLimiter.checkAllowed(usernameOrEmail, clientAddress))
+                .then(Mono.defer(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(usernameOrEmail, loginRequest.getPassword()))))
+                .map(authentication -> (User) authentication.getPrincipal())
+                .flatMap(user -> blocking(() -> refreshTokenService.issue(user))
+                        .map(refreshToken -> ResponseEntity.ok(ApiResponse.success("Login successful",
+                                authResponse(user, refreshToken)))))
+                .onErrorResume(LoginThrottledException.class, e -> Mono.just(throttled(e)))
+                // Locked by an earlier burst of failures, possibly on another instance; checked before hashing
+                .onErrorResume(LockedException.class, e -> Mono.just(throttled(new LoginThrottledException(
+                        "Too many failed login attempts, try again later",
+                        loginAttemptLimiter.getLockout().toSeconds()))))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(ApiResponse.error("Server is busy, please retry later"))))
+                .onErrorResume(AuthenticationException.class, e -> recordFailure(usernameOrEmail, clientAddress)
+                        .thenReturn(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(ApiResponse.error("Login failed: Invalid username/email or password"))));
+    }
+
+    /**
+     * User registration endpoint.
+     * The insert and the password hash block, so both run off the event loop.
+     * @param registerRequest registration details
+     * @return JWT token, refresh token and user information
+     */
+    @PostMapping("/register")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> register(
+            @Valid @RequestBody RegisterRequest registerRequest) {
+        return blocking(() -> {
+                    User user = registrationService.registerUser(registerRequest);
+                    return authResponse(user, refreshTokenService.issue(user));
+                })
+                .map(authResponse -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("Registration successful", authResponse)))
+                .onErrorResume(PasswordHashingBusyException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(ApiResponse.error(e.getMessage()))))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body(ApiResponse.error("Registration failed: " + e.getMessage()))));
+    }
+
+    /**
+     * Token refresh endpoint.
+     * Consumes the refresh token and returns a new access token and refresh token.
+     * @param refreshRequest the current refresh token
+     * @return new JWT token, refresh token and user information
+     */
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<ApiResponse<AuthResponse>>> refresh(
+            @Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return blocking(() -> refreshTokenService.rotate(refreshRequest.getRefreshToken()))
+                .map(rotation -> ResponseEntity.ok(ApiResponse.success("Token refreshed",
+                        authResponse(rotation.user(), rotation.refreshToken()))))
+                .onErrorResume(RefreshTokenException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(ApiResponse.error("Token refresh failed: " + e.getMessage()))));
+    }
+
+    /**
+     * Logout endpoint.
+     * Revokes the refresh token and every token rotated from the same login,
+     * and the access token from the Authorization header when one is sent.
+     * @param authorization optional bearer access token
+     * @param refreshRequest the current refresh token
+     * @return logout result
+     */
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<ApiResponse<Void>>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        return blocking(() -> {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+            if (accessToken != null) {
+                jwtUtil.verifyToken(accessToken).ifPresent(revocationRegistry::revoke);
+            }
+            return true;
+        }).thenReturn(ResponseEntity.ok(ApiResponse.success("Logged out")));
+    }
+
+    /**
+     * Token validation endpoint.
+     * Takes the token as a form field or query parameter, like the servlet endpoint.
+     * @param exchange current exchange, for the token parameter
+     * @return validation result
+     */
+    @PostMapping("/validate")
+    public Mono<ResponseEntity<ApiResponse<Boolean>>> validateToken(ServerWebExchange exchange) {
+        return exchange.getFormData()
+                .mapNotNull(form -> form.getFirst("token"))
+                .switchIfEmpty(Mono.justOrEmpty(exchange.getRequest().getQueryParams().getFirst("token")))
+                .map(token -> jwtUtil.validateToken(token)
+                        ? ResponseEntity.ok(ApiResponse.success("Token is valid", true))
+                        : ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(ApiResponse.error("Token is invalid", false)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("Token validation failed: token is required", false)));
+    }
+
+    /**
+     * Batch token validation endpoint.
+     * Always answers 200 with one result per token, in request order; an invalid
+     * token is a per-item result, not a request failure. Signature checks never block,
+     * so the batch is verified on the calling thread.
+     * @param batchRequest tokens to validate
+     * @return per-token validity, subject, expiry and rejection reason
+     */
+    @PostMapping("/validate/batch")
+    public Mono<ResponseEntity<ApiResponse<List<TokenValidationResult>>>> validateTokens(
+            @Valid @RequestBody TokenBatchRequest batchRequest) {
+        List<String> tokens = batchRequest.getTokens();
+        if (tokens.size() > maxBatchSize) {
+            return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(ApiResponse.error("At most " + maxBatchSize + " tokens per batch")));
+        }
+        List<TokenValidationResult> results = tokens.stream()
+                .map(token -> TokenValidationResult.of(jwtUtil.verify(token)))
+                .toList();
+        return Mono.just(ResponseEntity.ok(ApiResponse.success("Tokens validated", results)));
+    }
+
+    /**
+     * Get the current user from the authenticated token.
+     * @return username from token
+     */
+    @GetMapping("/me")
+    public Mono<ResponseEntity<ApiResponse<String>>> getCurrentUser() {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .map(username -> ResponseEntity.ok(ApiResponse.success("User retrieved successfully", username)))
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(ApiResponse.error("Failed to get user: missing or invalid token")));
+    }
+
+    /**
+     * Count a failed attempt, locking the account once it reaches its limit.
+     */
+    private Mono<Void> recordFailure(String usernameOrEmail, String clientAddress) {
+        if (!loginAttemptLimiter.recordFailure(usernameOrEmail, clientAddress)) {
+            return Mono.empty();
+        }
+        return userService.lockTemporarily(usernameOrEmail, Instant.now().plus(loginAttemptLimiter.getLockout()))
+                .then();
+    }
+
+    private AuthResponse authResponse(User user, String refreshToken) {
+        return new AuthResponse(jwtUtil.generateToken(user), user, jwtUtil.getExpirationTime(),
+                refreshToken, refreshTokenService.getExpirationMillis());
+    }
+
+    /**
+     * Run a JPA call off the event loop.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> throttled(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    private static String clientAddress(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.User;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking user lookups over R2DBC for the reactive profile.
+ * Reads the {@code users} table that JPA maps and creates, and materializes rows into the
+ * same {@link User} entity (detached), so tokens and authorities come out identical to the
+ * servlet stack. Each query hits one of the normalized-name unique indexes.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    // role is cast because Hibernate may declare it as an H2 ENUM column
+    private static final String SELECT_USER = "SELECT id, username, email, password, CAST(role AS VARCHAR) AS role, "
+            + "account_non_expired, account_non_locked, locked_until, credentials_non_expired, enabled, token_version "
+            + "FROM users ";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveUserRepository(ConnectionFactory connectionFactory) {
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Find user by normalized username.
+     * @param usernameNormalized lower-cased username
+     * @return the user, or empty if not found
+     */
+    public Mono<User> findByUsernameNormalized(String usernameNormalized) {
+        return databaseClient.sql(SELECT_USER + "WHERE username_normalized = :name")
+                .bind("name", usernameNormalized)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Find user by normalized email.
+     * @param emailNormalized lower-cased email
+     * @return the user, or empty if not found
+     */
+    public Mono<User> findByEmailNormalized(String emailNormalized) {
+        return databaseClient.sql(SELECT_USER + "WHERE email_normalized = :email")
+                .bind("email", emailNormalized)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    /**
+     * Lock an account against logins until the given time.
+     * @param id the user ID
+     * @param until time at which the account unlocks by itself
+     * @return number of rows updated
+     */
+    public Mono<Long> lockUntil(Long id, Instant until) {
+        return databaseClient.sql("UPDATE users SET locked_until = :until WHERE id = :id")
+                .bind("until", until.atOffset(ZoneOffset.UTC))
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User();
+        user.setId(row.get("id", Long.class));
+        user.setUsername(row.get("username", String.class));
+        user.setEmail(row.get("email", String.class));
+        user.setPassword(row.get("password", String.class));
+        user.setRole(User.Role.valueOf(row.get("role", String.class)));
+        user.setAccountNonExpired(Boolean.TRUE.equals(row.get("account_non_expired", Boolean.class)));
+        user.setAccountNonLocked(Boolean.TRUE.equals(row.get("account_non_locked", Boolean.class)));
+        user.setLockedUntil(toInstant(row.get("locked_until")));
+        user.setCredentialsNonExpired(Boolean.TRUE.equals(row.get("credentials_non_expired", Boolean.class)));
+        user.setEnabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)));
+        user.setTokenVersion(row.get("token_version", Long.class));
+        return user;
+    }
+
+    /**
+     * Convert the locked_until column, whose driver type depends on how Hibernate declared it.
+     */
+    private static Instant toInstant(Object value) {
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toInstant(ZoneOffset.UTC);
+        }
+        return (Instant) value;
+    }
+}
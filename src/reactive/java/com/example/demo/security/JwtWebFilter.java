@@ -0,0 +1,128 @@
+package com.example.demo.security;
+
+import com.example.demo.service.ReactiveUserService;
+import com.example.demo.util.JwtUtil;
+import com.example.demo.util.TokenVerification;
+import com.example.demo.util.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link JwtAuthenticationFilter} for the reactive profile.
+ * Verifies the same tokens with the same {@link JwtUtil} on the event-loop thread (a signature
+ * check never blocks) and publishes the authentication through the Reactor context instead of
+ * a thread-local. In stateful mode the user is loaded over R2DBC. Not a bean: WebFlux would
+ * otherwise also run it outside the security filter chain.
+ */
+public class JwtWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtWebFilter.class);
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final long ERROR_LOG_INTERVAL_MILLIS = 10_000;
+
+    private final JwtUtil jwtUtil;
+    private final ReactiveUserService userService;
+    private final RoleAuthorityResolver roleAuthorities;
+    private final boolean stateless;
+
+    private final Counter successCounter;
+    private final Counter missingCounter;
+    private final Counter errorCounter;
+    private final Map<TokenVerification.Failure, Counter> failureCounters =
+            new EnumMap<>(TokenVerification.Failure.class);
+    private final ErrorLogLimiter errorLogLimiter = new ErrorLogLimiter(ERROR_LOG_INTERVAL_MILLIS);
+
+    /**
+     * @param jwtUtil token verifier shared with the servlet stack
+     * @param userService reactive user lookups, used unless stateless
+     * @param roleAuthorities resolved authorities per role
+     * @param meterRegistry registry for the {@code auth.filter.requests} outcome counters
+     * @param stateless rebuild the principal from signed claims instead of loading the user
+     */
+    public JwtWebFilter(JwtUtil jwtUtil, ReactiveUserService userService, RoleAuthorityResolver roleAuthorities,
+                        MeterRegistry meterRegistry, boolean stateless) {
+        this.jwtUtil = jwtUtil;
+        this.userService = userService;
+        this.roleAuthorities = roleAuthorities;
+        this.stateless = stateless;
+        this.successCounter = outcomeCounter(meterRegistry, "success");
+        this.missingCounter = outcomeCounter(meterRegistry, "missing");
+        this.errorCounter = outcomeCounter(meterRegistry, "error");
+        for (TokenVerification.Failure failure : TokenVerification.Failure.values()) {
+            failureCounters.put(failure, outcomeCounter(meterRegistry, failure.tag()));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String jwt = getJwtFromRequest(exchange);
+        if (jwt == null) {
+            missingCounter.increment();
+            return chain.filter(exchange);
+        }
+        return Mono.fromCallable(() -> jwtUtil.verify(jwt))
+                .flatMap(this::authenticate)
+                .map(ReactiveSecurityContextHolder::withAuthentication)
+                .onErrorResume(ex -> {
+                    errorCounter.increment();
+                    errorLogLimiter.warn(log, "Could not set user authentication in security context", ex);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    /**
+     * Build the authentication for a verified token, or complete empty if it was rejected
+     * or its user no longer exists.
+     */
+    private Mono<Authentication> authenticate(TokenVerification verification) {
+        if (!verification.isValid()) {
+            failureCounters.get(verification.getFailure()).increment();
+            return Mono.empty();
+        }
+        VerifiedToken verified = verification.getToken();
+        Mono<UserDetails> userDetails = stateless
+                ? Mono.fromCallable(() -> JwtAuthenticationFilter.toUserDetails(verified))
+                : userService.findByUsername(verified.getSubject());
+        return userDetails.map(user -> {
+            successCounter.increment();
+            return new UsernamePasswordAuthenticationToken(user, null,
+                    JwtAuthenticationFilter.getAuthorities(verified, user, stateless, roleAuthorities));
+        });
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.filter.requests")
+                .description("JWT filter outcomes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Extract JWT token from Authorization header.
+     */
+    private static String getJwtFromRequest(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.length() > BEARER_PREFIX.length()
+                && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Reactive user lookups for the reactive profile, backed by R2DBC.
+ * Mirrors the login lookup of {@link UserService} without its cache: each lookup is a
+ * single indexed query that never blocks the calling event-loop thread.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserService implements ReactiveUserDetailsService {
+
+    private final ReactiveUserRepository reactiveUserRepository;
+
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository reactiveUserRepository) {
+        this.reactiveUserRepository = reactiveUserRepository;
+    }
+
+    /**
+     * Load user by username or email for Spring Security.
+     * @param username the username or email as entered
+     * @return the user, or empty if not found
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return findByUsernameOrEmail(username).cast(UserDetails.class);
+    }
+
+    /**
+     * Find user by username or email, case-insensitively.
+     * Anything containing '@' is tried as an email first, everything else as a username.
+     * @param usernameOrEmail the username or email to search for
+     * @return the user, or empty if not found
+     */
+    public Mono<User> findByUsernameOrEmail(String usernameOrEmail) {
+        if (usernameOrEmail == null) {
+            return Mono.empty();
+        }
+        String normalized = User.normalize(usernameOrEmail);
+        if (normalized.indexOf('@') >= 0) {
+            // Usernames created before '@' was disallowed can still contain one
+            return reactiveUserRepository.findByEmailNormalized(normalized)
+                    .switchIfEmpty(Mono.defer(() -> reactiveUserRepository.findByUsernameNormalized(normalized)));
+        }
+        return reactiveUserRepository.findByUsernameNormalized(normalized);
+    }
+
+    /**
+     * Lock an account against logins until the given time, e.g. after repeated failed attempts.
+     * @param usernameOrEmail login name as entered
+     * @param until time at which the account unlocks by itself
+     * @return true if a matching account was locked
+     */
+    public Mono<Boolean> lockTemporarily(String usernameOrEmail, Instant until) {
+        return findByUsernameOrEmail(usernameOrEmail)
+                .flatMap(user -> reactiveUserRepository.lockUntil(user.getId(), until))
+                .map(updated -> updated > 0)
+                .defaultIfEmpty(false);
+    }
+}
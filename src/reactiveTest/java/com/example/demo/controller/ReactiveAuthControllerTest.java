@@ -0,0 +1,230 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.LoginRequest;
+import com.example.demo.dto.RefreshTokenRequest;
+import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.TokenBatchRequest;
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveAuthControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        // Registered through JPA; the reactive stack reads it back over R2DBC
+        if (!userService.existsByUsername("reactiveuser")) {
+            userService.registerUser(new RegisterRequest("reactiveuser", "reactive@example.com",
+                    "password123", "password123"));
+        }
+    }
+
+    @Test
+    void login_ValidCredentials_TokenAuthenticatesRequests() {
+        JsonNode body = login("Reactive@Example.com", "password123");
+        String token = body.path("data").path("token").asText();
+
+        webTestClient.get().uri("/api/auth/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data").isEqualTo("reactiveuser");
+    }
+
+    @Test
+    void register_NewUser_ReturnsTokensThatAuthenticate() {
+        JsonNode body = webTestClient.post().uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegisterRequest("reactivenew", "reactivenew@example.com",
+                        "password123", "password123"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(body);
+        assertFalse(body.path("data").path("refreshToken").asText().isEmpty());
+
+        webTestClient.get().uri("/api/auth/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + body.path("data").path("token").asText())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data").isEqualTo("reactivenew");
+    }
+
+    @Test
+    void register_TakenUsername_ReturnsBadRequest() {
+        webTestClient.post().uri("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegisterRequest("ReactiveUser", "someone@example.com", "password123", "password123"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false);
+    }
+
+    @Test
+    void validate_FormToken_ReportsValidity() {
+        String token = login("reactiveuser", "password123").path("data").path("token").asText();
+
+        webTestClient.post().uri("/api/auth/validate")
+                .body(BodyInserters.fromFormData("token", token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data").isEqualTo(true);
+        webTestClient.post().uri("/api/auth/validate?token=not-a-jwt")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.post().uri("/api/auth/validate")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void validateBatch_MixedTokens_ReturnsResultPerToken() {
+        String token = login("reactiveuser", "password123").path("data").path("token").asText();
+
+        JsonNode body = webTestClient.post().uri("/api/auth/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new TokenBatchRequest(List.of(token, "not-a-jwt")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        assertEquals("reactiveuser", body.path("data").path(0).path("subject").asText());
+        assertFalse(body.path("data").path(1).path("valid").asBoolean());
+    }
+
+    @Test
+    void userEndpoints_ServletOnly_ReturnNotFound() {
+        String token = login("reactiveuser", "password123").path("data").path("token").asText();
+
+        webTestClient.get().uri("/api/users/profile")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void refresh_LoginRefreshToken_RotatesOnce() {
+        JsonNode login = login("reactiveuser", "password123");
+        String refreshToken = login.path("data").path("refreshToken").asText();
+        assertFalse(refreshToken.isEmpty());
+
+        JsonNode refreshed = webTestClient.post().uri("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenRequest(refreshToken))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(refreshed);
+        assertNotEquals(refreshToken, refreshed.path("data").path("refreshToken").asText());
+
+        webTestClient.post().uri("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RefreshTokenRequest(refreshToken))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void login_UnknownUser_StillHashesPassword() {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) passwordEncoder.getExecutor();
+        long hashesBefore = pool.getTaskCount();
+
+        webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("nosuchuser", "password123"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        assertTrue(pool.getTaskCount() > hashesBefore);
+    }
+
+    @Test
+    void login_WrongPassword_ReturnsUnauthorized() {
+        webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest("reactiveuser", "wrongpassword"))
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.success").isEqualTo(false);
+    }
+
+    @Test
+    void protectedEndpoint_InvalidToken_ReturnsUnauthorized() {
+        webTestClient.get().uri("/api/users/profile")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void actuator_OnlyHealthIsPublic() {
+        webTestClient.get().uri("/actuator/health")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/actuator/metrics")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        String token = login("reactiveuser", "password123").path("data").path("token").asText();
+        webTestClient.get().uri("/actuator/metrics")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private JsonNode login(String usernameOrEmail, String password) {
+        JsonNode body = webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new LoginRequest(usernameOrEmail, password))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(body);
+        return body;
+    }
+}
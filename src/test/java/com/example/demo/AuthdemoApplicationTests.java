@@ -1,13 +1,103 @@
 package com.example.demo;
 
+import com.example.demo.dto.LoginRequest;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class AuthdemoApplicationTests {
 
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void actuatorHealth_Anonymous_IsPublic() throws Exception {
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void actuatorMetrics_Anonymous_ReturnsUnauthorized() throws Exception {
+		mockMvc.perform(get("/actuator/metrics"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	@WithMockUser(roles = "USER")
+	void actuatorMetrics_User_ReturnsForbidden() throws Exception {
+		mockMvc.perform(get("/actuator/metrics"))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	@WithMockUser(roles = "ADMIN")
+	void actuatorMetrics_Admin_ReturnsMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/metrics"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void login_Pbkdf2Hash_IsRehashedWithBcrypt() throws Exception {
+		String pbkdf2 = "{pbkdf2}" + Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password123");
+
+		User user = loginWithStoredHash("pbkdf2user", pbkdf2);
+
+		assertUpgraded(user);
+	}
+
+	@Test
+	void login_LegacyUnprefixedBcryptHash_IsRehashedWithPrefix() throws Exception {
+		String legacy = new BCryptPasswordEncoder(4).encode("password123");
+
+		User user = loginWithStoredHash("legacyuser", legacy);
+
+		assertUpgraded(user);
+	}
+
+	private User loginWithStoredHash(String username, String storedHash) throws Exception {
+		User user = userRepository.save(new User(username, username + "@example.com", storedHash));
+
+		mockMvc.perform(post("/api/auth/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(new LoginRequest(username, "password123"))))
+				.andExpect(status().isOk());
+
+		return userRepository.findById(user.getId()).orElseThrow();
+	}
+
+	private void assertUpgraded(User user) {
+		assertTrue(user.getPassword().startsWith("{bcrypt}"), user.getPassword());
+		assertTrue(passwordEncoder.matches("password123", user.getPassword()));
+	}
+
 }
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsConfigTest {
+
+    @Test
+    void resolvePoolSize_Unset_LeavesOneCarrierFree() {
+        assertEquals(7, VirtualThreadsConfig.resolvePoolSize(null, 8));
+        assertEquals(1, VirtualThreadsConfig.resolvePoolSize(null, 1));
+    }
+
+    @Test
+    void resolvePoolSize_ConfiguredBelowCarriers_IsKept() {
+        assertEquals(4, VirtualThreadsConfig.resolvePoolSize(4, 8));
+    }
+
+    @Test
+    void resolvePoolSize_ConfiguredAtOrAboveCarriers_FailsStartup() {
+        assertThrows(IllegalStateException.class, () -> VirtualThreadsConfig.resolvePoolSize(8, 8));
+        assertThrows(IllegalStateException.class, () -> VirtualThreadsConfig.resolvePoolSize(20, 8));
+        assertThrows(IllegalStateException.class, () -> VirtualThreadsConfig.resolvePoolSize(0, 8));
+    }
+}
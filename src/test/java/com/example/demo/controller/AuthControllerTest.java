@@ -3,19 +3,38 @@ package com.example.demo.controller;
 import com.example.demo.dto.AuthResponse;
 import com.example.demo.dto.LoginRequest;
 import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.TokenBatchRequest;
+import com.example.demo.dto.TokenValidationResult;
 import com.example.demo.entity.User;
+import com.example.demo.config.SecurityConfig;
+import com.example.demo.security.JwtAuthenticationEntryPoint;
+import com.example.demo.security.RoleAuthorityResolver;
+import com.example.demo.security.LoginThrottledException;
 import com.example.demo.service.AuthService;
+import com.example.demo.service.TokenBatchTooLargeException;
+import com.example.demo.service.UserService;
+import com.example.demo.util.JwtUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -23,6 +42,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
+@Import({SecurityConfig.class, JwtAuthenticationEntryPoint.class, RoleAuthorityResolver.class,
+        AuthControllerTest.MetricsTestConfig.class})
 class AuthControllerTest {
     
     @Autowired
@@ -31,6 +52,16 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
     
+    // Collaborators of the security filter chain, which the slice loads with the controller
+    @MockBean
+    private JwtUtil jwtUtil;
+    
+    @MockBean
+    private UserService userService;
+    
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -59,7 +90,7 @@ class AuthControllerTest {
     
     @Test
     void login_ValidCredentials_ReturnsAuthResponse() throws Exception {
-        when(authService.login(any(LoginRequest.class))).thenReturn(authResponse);
+        when(authService.login(any(LoginRequest.class), any())).thenReturn(authResponse);
         
         mockMvc.perform(post("/api/auth/login")
                 .with(csrf())
@@ -74,7 +105,7 @@ class AuthControllerTest {
     
     @Test
     void login_InvalidCredentials_ReturnsUnauthorized() throws Exception {
-        when(authService.login(any(LoginRequest.class)))
+        when(authService.login(any(LoginRequest.class), any()))
                 .thenThrow(new RuntimeException("Invalid credentials"));
         
         mockMvc.perform(post("/api/auth/login")
@@ -86,6 +117,20 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
     
+    @Test
+    void login_Throttled_ReturnsTooManyRequestsWithRetryAfter() throws Exception {
+        when(authService.login(any(LoginRequest.class), any()))
+                .thenThrow(new LoginThrottledException("Too many failed login attempts, try again later", 120));
+        
+        mockMvc.perform(post("/api/auth/login")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "120"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
     @Test
     void register_ValidRequest_ReturnsAuthResponse() throws Exception {
         when(authService.register(any(RegisterRequest.class))).thenReturn(authResponse);
@@ -121,8 +166,46 @@ class AuthControllerTest {
         mockMvc.perform(post("/api/auth/validate")
                 .with(csrf())
                 .param("token", "valid-token"))
-                .andExpected(status().isOk())
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data").value(true));
     }
+    
+    @Test
+    void validateTokens_MixedBatch_ReturnsResultPerToken() throws Exception {
+        when(authService.validateTokens(List.of("good", "old"))).thenReturn(List.of(
+                new TokenValidationResult(true, "testuser", Instant.now().plusSeconds(60), null),
+                new TokenValidationResult(false, null, null, "expired")));
+        
+        mockMvc.perform(post("/api/auth/validate/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TokenBatchRequest(List.of("good", "old")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].valid").value(true))
+                .andExpect(jsonPath("$.data[0].subject").value("testuser"))
+                .andExpect(jsonPath("$.data[1].valid").value(false))
+                .andExpect(jsonPath("$.data[1].reason").value("expired"));
+    }
+    
+    @Test
+    void validateTokens_OversizedBatch_ReturnsPayloadTooLarge() throws Exception {
+        when(authService.validateTokens(anyList()))
+                .thenThrow(new TokenBatchTooLargeException(500));
+        
+        mockMvc.perform(post("/api/auth/validate/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new TokenBatchRequest(List.of("a", "b")))))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+    
+    @TestConfiguration
+    static class MetricsTestConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
 }
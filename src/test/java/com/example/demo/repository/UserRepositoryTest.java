@@ -0,0 +1,185 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.UserSummary;
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+class UserRepositoryTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FEBRUARY = LocalDateTime.of(2024, 2, 1, 0, 0);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime APRIL = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        users = List.of(
+                persist("alice", User.Role.USER, true, JANUARY),
+                persist("bob", User.Role.ADMIN, true, FEBRUARY),
+                persist("carol", User.Role.USER, false, MARCH),
+                persist("dave", User.Role.ADMIN, false, APRIL));
+        entityManager.clear();
+    }
+
+    static Stream<Arguments> filterCombinations() {
+        List<Arguments> combinations = new ArrayList<>();
+        for (User.Role role : new User.Role[] {null, User.Role.USER, User.Role.ADMIN}) {
+            for (Boolean enabled : new Boolean[] {null, true, false}) {
+                for (LocalDateTime createdFrom : new LocalDateTime[] {null, FEBRUARY}) {
+                    for (LocalDateTime createdTo : new LocalDateTime[] {null, APRIL}) {
+                        combinations.add(Arguments.of(role, enabled, createdFrom, createdTo));
+                    }
+                }
+            }
+        }
+        return combinations.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void findPageAfter_FilterCombination_ReturnsMatchingUsersInIdOrder(User.Role role, Boolean enabled,
+                                                                      LocalDateTime createdFrom,
+                                                                      LocalDateTime createdTo) {
+        List<String> expected = users.stream()
+                .filter(user -> role == null || user.getRole() == role)
+                .filter(user -> enabled == null || user.isEnabled() == enabled)
+                .filter(user -> createdFrom == null || !user.getCreatedAt().isBefore(createdFrom))
+                .filter(user -> createdTo == null || user.getCreatedAt().isBefore(createdTo))
+                .map(User::getUsername)
+                .toList();
+
+        List<UserSummary> page = userRepository.findPageAfter(0L, role, enabled, createdFrom, createdTo,
+                PageRequest.of(0, 10));
+        try (Stream<UserSummary> streamed = userRepository.streamAll(role, enabled, createdFrom, createdTo)) {
+            assertEquals(expected, streamed.map(UserSummary::getUsername).toList());
+        }
+
+        assertEquals(expected, page.stream().map(UserSummary::getUsername).toList());
+    }
+
+    @Test
+    void findPageAfter_WalkingTheCursor_VisitsEveryUserOnce() {
+        List<String> visited = new ArrayList<>();
+        long after = 0L;
+        List<UserSummary> page;
+        do {
+            page = userRepository.findPageAfter(after, null, null, null, null, PageRequest.of(0, 3));
+            page.forEach(summary -> visited.add(summary.getUsername()));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (!page.isEmpty());
+
+        assertEquals(List.of("alice", "bob", "carol", "dave"), visited);
+    }
+
+    @Test
+    void findPageAfter_AfterCursor_StartsPastIt() {
+        List<UserSummary> page = userRepository.findPageAfter(users.get(0).getId(), null, null, null, null,
+                PageRequest.of(0, 2));
+
+        assertEquals(List.of("bob", "carol"), page.stream().map(UserSummary::getUsername).toList());
+    }
+
+    @Test
+    void findSummaryById_MapsPublicFieldsOnly() throws JsonProcessingException {
+        User carol = users.get(2);
+
+        Optional<UserSummary> summary = userRepository.findSummaryById(carol.getId());
+
+        assertTrue(summary.isPresent());
+        assertSummary(carol, summary.get());
+        assertTrue(userRepository.findSummaryById(-1L).isEmpty());
+    }
+
+    @Test
+    void findSummaryByUsername_MapsPublicFieldsOnly() throws JsonProcessingException {
+        User bob = users.get(1);
+
+        Optional<UserSummary> summary = userRepository.findSummaryByUsername("bob");
+
+        assertTrue(summary.isPresent());
+        assertSummary(bob, summary.get());
+        assertTrue(userRepository.findSummaryByUsername("nobody").isEmpty());
+    }
+
+    @Test
+    void findAllSummaries_MapsEveryUserInIdOrder() throws JsonProcessingException {
+        List<UserSummary> summaries = userRepository.findAllSummaries();
+
+        assertEquals(users.size(), summaries.size());
+        for (int i = 0; i < users.size(); i++) {
+            assertSummary(users.get(i), summaries.get(i));
+        }
+    }
+
+    @Test
+    void findPageAfterAndStreamAll_MapPublicFieldsOnly() throws JsonProcessingException {
+        List<UserSummary> page = userRepository.findPageAfter(0L, null, null, null, null, PageRequest.of(0, 10));
+        List<UserSummary> streamed;
+        try (Stream<UserSummary> stream = userRepository.streamAll(null, null, null, null)) {
+            streamed = stream.toList();
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            assertSummary(users.get(i), page.get(i));
+            assertSummary(users.get(i), streamed.get(i));
+        }
+    }
+
+    private void assertSummary(User expected, UserSummary actual) throws JsonProcessingException {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getRole().name(), actual.getRole());
+        assertEquals(expected.isEnabled(), actual.isEnabled());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+
+        JsonNode json = objectMapper.valueToTree(actual);
+        assertFalse(json.has("password"));
+        assertFalse(objectMapper.writeValueAsString(actual).contains("encodedPassword"));
+    }
+
+    private User persist(String username, User.Role role, boolean enabled, LocalDateTime createdAt) {
+        User user = new User(username, username + "@example.com", "encodedPassword");
+        user.setRole(role);
+        user.setEnabled(enabled);
+        entityManager.persistAndFlush(user);
+        // The creation time is stamped on insert; backdate it for the range filters
+        entityManager.getEntityManager()
+                .createQuery("UPDATE User u SET u.createdAt = :createdAt WHERE u.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", user.getId())
+                .executeUpdate();
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptStrengthCalibratorTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void calibrate_DoublingCost_PicksHighestStrengthWithinTarget() {
+        // 25ms at strength 10, doubling per step: 200ms at 13, 400ms at 14
+        int strength = BCryptStrengthCalibrator.calibrate(250, doubling(25));
+
+        assertEquals(13, strength);
+    }
+
+    @Test
+    void calibrate_OneSlowSamplePerStrength_IsIgnored() {
+        Map<Integer, Integer> calls = new HashMap<>();
+        IntToLongFunction doubling = doubling(25);
+        IntToLongFunction noisy = strength -> {
+            int call = calls.merge(strength, 1, Integer::sum);
+            // A pause during the first sample would stop the search at strength 10
+            return call == 1 ? 1_000 * MILLIS : doubling.applyAsLong(strength);
+        };
+
+        assertEquals(13, BCryptStrengthCalibrator.calibrate(250, noisy));
+    }
+
+    @Test
+    void calibrate_SlowHost_ReturnsMinimum() {
+        assertEquals(BCryptStrengthCalibrator.MIN_STRENGTH, BCryptStrengthCalibrator.calibrate(100, doubling(500)));
+    }
+
+    @Test
+    void calibrate_FastHost_StopsAtMaximum() {
+        assertEquals(BCryptStrengthCalibrator.MAX_STRENGTH, BCryptStrengthCalibrator.calibrate(100, strength -> 0L));
+    }
+
+    private static IntToLongFunction doubling(long millisAtMinimum) {
+        return strength -> (millisAtMinimum * MILLIS) << (strength - BCryptStrengthCalibrator.MIN_STRENGTH);
+    }
+}
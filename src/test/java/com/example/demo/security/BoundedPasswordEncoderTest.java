@@ -0,0 +1,76 @@
+package com.example.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private BoundedPasswordEncoder encoder;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        encoder.close();
+    }
+    
+    @Test
+    void encode_DelegatesToWrappedEncoder() {
+        encoder = new BoundedPasswordEncoder(new StubEncoder(null), 1, 1, new SimpleMeterRegistry());
+        
+        assertEquals("hashed:password", encoder.encode("password"));
+        assertTrue(encoder.matches("password", "hashed:password"));
+    }
+    
+    @Test
+    void encode_PoolAndQueueFull_ThrowsBusy() throws Exception {
+        encoder = new BoundedPasswordEncoder(new StubEncoder(release), 1, 1, new SimpleMeterRegistry());
+        
+        // One hash occupies the pool thread, one waits in the queue
+        callers.submit(() -> encoder.encode("first"));
+        callers.submit(() -> encoder.encode("second"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getQueueSize() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+    }
+    
+    private static class StubEncoder implements PasswordEncoder {
+        
+        private final CountDownLatch gate;
+        
+        StubEncoder(CountDownLatch gate) {
+            this.gate = gate;
+        }
+        
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hashed:" + rawPassword;
+        }
+        
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ErrorLogLimiterTest {
+
+    private final Logger log = mock(Logger.class);
+
+    @Test
+    void warn_BurstOfErrors_LogsOneLineWithoutStackTrace() {
+        ErrorLogLimiter limiter = new ErrorLogLimiter(60_000);
+        RuntimeException ex = new RuntimeException("boom");
+
+        assertTrue(limiter.warn(log, "Failed", ex));
+        assertFalse(limiter.warn(log, "Failed", ex));
+        assertFalse(limiter.warn(log, "Failed", ex));
+
+        verify(log).warn(contains("boom"));
+        verify(log, never()).warn(anyString(), any(Throwable.class));
+    }
+
+    @Test
+    void warn_AfterInterval_ReportsSuppressedCount() {
+        ErrorLogLimiter limiter = new ErrorLogLimiter(0);
+        RuntimeException ex = new RuntimeException("boom");
+
+        limiter.warn(log, "Failed", ex);
+        limiter.warn(log, "Failed", ex);
+
+        verify(log, times(2)).warn(contains("(0 similar errors suppressed)"));
+    }
+
+    @Test
+    void warn_TraceEnabled_AttachesStackTrace() {
+        when(log.isTraceEnabled()).thenReturn(true);
+        ErrorLogLimiter limiter = new ErrorLogLimiter(60_000);
+        RuntimeException ex = new RuntimeException("boom");
+
+        limiter.warn(log, "Failed", ex);
+
+        verify(log).warn(anyString(), eq(ex));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.security;
+
+import com.example.demo.util.SlidingWindowSketch;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptLimiterTest {
+    
+    private final LoginAttemptLimiter limiter = new LoginAttemptLimiter(true, 60000L, 3, 5, 60000L, 1024);
+    
+    @Test
+    void checkAllowed_AccountReachesLimit_ThrottledCaseInsensitively() {
+        assertFalse(limiter.recordFailure("victim", "10.0.0.1"));
+        assertFalse(limiter.recordFailure("victim", "10.0.0.2"));
+        assertTrue(limiter.recordFailure("VICTIM", "10.0.0.3"));
+        
+        LoginThrottledException exception = assertThrows(LoginThrottledException.class,
+                () -> limiter.checkAllowed("Victim", "10.0.0.4"));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+        assertDoesNotThrow(() -> limiter.checkAllowed("someone-else", "10.0.0.4"));
+    }
+    
+    @Test
+    void checkAllowed_ClientSpraysManyAccounts_ThrottledByAddress() {
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure("user" + i, "10.0.0.9");
+        }
+        
+        assertThrows(LoginThrottledException.class, () -> limiter.checkAllowed("fresh-account", "10.0.0.9"));
+        assertDoesNotThrow(() -> limiter.checkAllowed("fresh-account", "10.0.0.10"));
+    }
+    
+    @Test
+    void checkAllowed_Disabled_NeverThrottles() {
+        LoginAttemptLimiter disabled = new LoginAttemptLimiter(false, 60000L, 1, 1, 60000L, 1024);
+        
+        assertFalse(disabled.recordFailure("victim", "10.0.0.1"));
+        assertDoesNotThrow(() -> disabled.checkAllowed("victim", "10.0.0.1"));
+    }
+    
+    @Test
+    void slidingWindowSketch_OldEventsFadeOut() {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(1024, 1000L);
+        for (int i = 0; i < 10; i++) {
+            sketch.record("key", 5000L);
+        }
+        
+        assertEquals(10, sketch.estimate("key", 5999L));
+        assertEquals(5, sketch.estimate("key", 6500L));
+        assertEquals(0, sketch.estimate("key", 7000L));
+        assertEquals(0, sketch.estimate("other", 5999L));
+    }
+    
+    @Test
+    void slidingWindowSketch_MillisUntilBelow_FollowsDecayNotWindowEnd() {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(1024, 1000L);
+        for (int i = 0; i < 10; i++) {
+            sketch.record("key", 5000L);
+        }
+        
+        // Ten events decay below five once the overlap falls under 0.45, at 6551
+        assertEquals(552, sketch.millisUntilBelow("key", 5, 5999L));
+        assertEquals(351, sketch.millisUntilBelow("key", 5, 6200L));
+        assertEquals(4, sketch.estimate("key", 6551L));
+        assertEquals(5, sketch.estimate("key", 6550L));
+        assertEquals(0, sketch.millisUntilBelow("key", 11, 5999L));
+        assertEquals(0, sketch.millisUntilBelow("other", 1, 5999L));
+    }
+}
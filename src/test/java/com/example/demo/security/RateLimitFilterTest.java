@@ -0,0 +1,162 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        // Slow refill so no request is refunded while a test runs
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("api.rate-limit.roles.user.capacity", "3")
+                .withProperty("api.rate-limit.roles.user.refill-per-second", "0.01")
+                .withProperty("api.rate-limit.roles.admin.capacity", "6")
+                .withProperty("api.rate-limit.roles.admin.refill-per-second", "0.01")
+                .withProperty("api.rate-limit.anonymous.capacity", "2")
+                .withProperty("api.rate-limit.anonymous.refill-per-second", "0.01");
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(environment, meterRegistry, true, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WithinQuota_PassesWithRateLimitHeaders() throws Exception {
+        authenticate("alice", User.Role.USER);
+
+        MockHttpServletResponse first = filter();
+        MockHttpServletResponse second = filter();
+
+        assertEquals(200, first.getStatus());
+        assertEquals("3", first.getHeader("RateLimit-Limit"));
+        assertEquals("2", first.getHeader("RateLimit-Remaining"));
+        assertEquals("1", second.getHeader("RateLimit-Remaining"));
+        assertTrue(Long.parseLong(second.getHeader("RateLimit-Reset")) > 0);
+        assertNull(second.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void doFilter_QuotaExhausted_Returns429WithRetryAfter() throws Exception {
+        authenticate("alice", User.Role.USER);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, filter().getStatus());
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/users/profile"), rejected, chain);
+
+        assertEquals(429, rejected.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals("3", rejected.getHeader("RateLimit-Limit"));
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+        long retryAfter = Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter >= 1);
+        assertEquals(Long.toString(retryAfter), rejected.getHeader("RateLimit-Reset"));
+        assertTrue(rejected.getContentAsString().contains("\"success\":false"));
+        assertEquals(1.0, meterRegistry.get("api.rate_limit.rejected").counter().count());
+    }
+
+    @Test
+    void doFilter_Admin_GetsAdminQuota() throws Exception {
+        authenticate("root", User.Role.ADMIN);
+
+        MockHttpServletResponse response = filter();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, filter().getStatus());
+        }
+
+        assertEquals("6", response.getHeader("RateLimit-Limit"));
+        assertEquals(429, filter().getStatus());
+    }
+
+    @Test
+    void doFilter_SeparateUsers_HaveSeparateBuckets() throws Exception {
+        authenticate("alice", User.Role.USER);
+        for (int i = 0; i < 3; i++) {
+            filter();
+        }
+        assertEquals(429, filter().getStatus());
+
+        authenticate("bob", User.Role.USER);
+
+        assertEquals(200, filter().getStatus());
+    }
+
+    @Test
+    void doFilter_Anonymous_PassesWithoutHeaders() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletResponse response = filter();
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("RateLimit-Limit"));
+        }
+    }
+
+    @Test
+    void doFilter_AnonymousAvailabilityChecks_LimitedPerClientAddress() throws Exception {
+        assertEquals(200, filterAnonymous("/api/public/availability", "203.0.113.7").getStatus());
+        assertEquals(200, filterAnonymous("/api/auth/login", "203.0.113.7").getStatus());
+
+        MockHttpServletResponse rejected = filterAnonymous("/api/public/availability", "203.0.113.7");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("RateLimit-Limit"));
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(200, filterAnonymous("/api/public/availability", "203.0.113.8").getStatus());
+    }
+
+    @Test
+    void doFilter_Disabled_PassesAuthenticatedRequests() throws Exception {
+        rateLimitFilter = new RateLimitFilter(new MockEnvironment(), meterRegistry, false, 1024);
+        authenticate("alice", User.Role.USER);
+
+        MockHttpServletResponse response = filter();
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("RateLimit-Limit"));
+    }
+
+    private MockHttpServletResponse filter() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/users/profile"), response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private MockHttpServletResponse filterAnonymous(String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username, User.Role role) {
+        User user = new User(username, username + "@example.com", "encodedPassword");
+        user.setRole(role);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
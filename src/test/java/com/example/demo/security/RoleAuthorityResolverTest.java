@@ -0,0 +1,74 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleAuthorityResolverTest {
+    
+    @Test
+    void resolve_NoHierarchy_OneAuthorityPerRole() {
+        RoleAuthorityResolver resolver = new RoleAuthorityResolver(new MockEnvironment());
+        
+        assertEquals(List.of("ROLE_USER"), names(resolver.getAuthorities(User.Role.USER)));
+        assertEquals(List.of("ROLE_ADMIN"), names(resolver.getAuthorities(User.Role.ADMIN)));
+    }
+    
+    @Test
+    void resolve_AdminIncludesUser_InheritsSharedAuthorities() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("security.roles.user.permissions", "profile:read")
+                .withProperty("security.roles.admin.permissions", "users:read, users:write")
+                .withProperty("security.roles.admin.includes", "USER");
+        
+        RoleAuthorityResolver resolver = new RoleAuthorityResolver(environment);
+        
+        assertEquals(List.of("ROLE_ADMIN", "users:read", "users:write", "ROLE_USER", "profile:read"),
+                names(resolver.getAuthorities(User.Role.ADMIN)));
+        assertSame(resolver.getAuthorities(User.Role.USER).get(0), resolver.getAuthorities(User.Role.ADMIN).get(3));
+        User admin = new User("admin", "admin@example.com", "password");
+        admin.setRole(User.Role.ADMIN);
+        assertSame(resolver.getAuthorities(admin), resolver.getAuthorities(admin));
+        // The role itself is untouched, so other resolvers and contexts are unaffected
+        assertEquals(List.of("ROLE_ADMIN"), names(admin.getAuthorities()));
+    }
+    
+    @Test
+    void mapAuthorities_ExpandsRolesAndKeepsOtherAuthorities() {
+        RoleAuthorityResolver resolver = new RoleAuthorityResolver(new MockEnvironment()
+                .withProperty("security.roles.admin.includes", "USER"));
+        
+        Collection<? extends GrantedAuthority> mapped = resolver.mapAuthorities(List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("reports:read")));
+        
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER", "reports:read"), names(mapped));
+    }
+    
+    @Test
+    void resolve_CyclicHierarchy_Fails() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("security.roles.user.includes", "ADMIN")
+                .withProperty("security.roles.admin.includes", "USER");
+        
+        assertThrows(IllegalStateException.class, () -> new RoleAuthorityResolver(environment));
+    }
+    
+    @Test
+    void resolve_UnknownRole_Fails() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("security.roles.admin.includes", "SUPERUSER");
+        
+        assertThrows(IllegalStateException.class, () -> new RoleAuthorityResolver(environment));
+    }
+    
+    private static List<String> names(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.JwtSigningKey;
+import com.example.demo.repository.JwtSigningKeyRepository;
+import com.example.demo.util.SigningKeyRing;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SigningKeyManagerTest {
+
+    private static final long ACCESS_TOKEN_LIFETIME_MILLIS = Duration.ofHours(1).toMillis();
+    private static final long ACTIVATION_DELAY_MILLIS = Duration.ofMinutes(10).toMillis();
+    private static final String KEY_ENCRYPTION_KEY = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private JwtSigningKeyRepository signingKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SigningKeyManager signingKeyManager;
+
+    @BeforeEach
+    void setUp() {
+        signingKeyManager = new SigningKeyManager(signingKeyRepository, transactionManager, "ES256",
+                ACCESS_TOKEN_LIFETIME_MILLIS, ACTIVATION_DELAY_MILLIS, "");
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void reload_KeySupersededLongerThanTokenLifetime_IsDeleted() {
+        Instant now = Instant.now();
+        JwtSigningKey expired = key("expired", now.minus(Duration.ofHours(3)));
+        JwtSigningKey recent = key("recent", now.minus(Duration.ofHours(2)));
+        JwtSigningKey current = key("current", now.minus(Duration.ofMinutes(30)));
+        JwtSigningKey pending = key("pending", now.plus(Duration.ofMinutes(5)));
+        when(signingKeyRepository.findByAlgorithmOrderByActivatesAtAsc("ES256"))
+                .thenReturn(List.of(expired, recent, current, pending));
+
+        signingKeyManager.reload();
+
+        verify(signingKeyRepository).delete(expired);
+        verify(signingKeyRepository, never()).delete(recent);
+        verify(signingKeyRepository, never()).delete(current);
+        assertEquals(List.of("recent", "current", "pending"), kids());
+        assertEquals("current", signingKeyManager.getKeyRing().current(now).kid());
+    }
+
+    @Test
+    void reload_OnlyKey_IsKeptHoweverOld() {
+        JwtSigningKey only = key("only", Instant.now().minus(Duration.ofDays(30)));
+        when(signingKeyRepository.findByAlgorithmOrderByActivatesAtAsc("ES256")).thenReturn(List.of(only));
+
+        signingKeyManager.reload();
+
+        verify(signingKeyRepository, never()).delete(any());
+        assertEquals(List.of("only"), kids());
+    }
+
+    @Test
+    void rotateUnlessPending_NewestKeyNotActiveYet_Skips() {
+        JwtSigningKey pending = key("pending", Instant.now().plus(Duration.ofMinutes(5)));
+        when(signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc("ES256"))
+                .thenReturn(Optional.of(pending));
+
+        assertFalse(signingKeyManager.rotateUnlessPending());
+
+        verify(signingKeyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void rotateUnlessPending_NewestKeyActive_SavesDelayedKey() {
+        Instant before = Instant.now();
+        JwtSigningKey current = key("current", before.minus(Duration.ofDays(1)));
+        when(signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc("ES256"))
+                .thenReturn(Optional.of(current));
+
+        assertTrue(signingKeyManager.rotateUnlessPending());
+
+        ArgumentCaptor<JwtSigningKey> saved = ArgumentCaptor.forClass(JwtSigningKey.class);
+        verify(signingKeyRepository).saveAndFlush(saved.capture());
+        assertEquals("ES256", saved.getValue().getAlgorithm());
+        assertEquals(current.getRotation() + 1, saved.getValue().getRotation());
+        assertFalse(saved.getValue().getActivatesAt().isBefore(before.plusMillis(ACTIVATION_DELAY_MILLIS)));
+        verify(signingKeyRepository).findByAlgorithmOrderByActivatesAtAsc("ES256");
+    }
+
+    @Test
+    void rotateUnlessPending_NoKeys_SavesImmediatelyActiveKey() {
+        Instant before = Instant.now();
+        when(signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc("ES256")).thenReturn(Optional.empty());
+
+        assertTrue(signingKeyManager.rotateUnlessPending());
+
+        ArgumentCaptor<JwtSigningKey> saved = ArgumentCaptor.forClass(JwtSigningKey.class);
+        verify(signingKeyRepository).saveAndFlush(saved.capture());
+        assertTrue(saved.getValue().getActivatesAt().isBefore(before.plusMillis(ACTIVATION_DELAY_MILLIS)));
+    }
+
+    @Test
+    void init_OtherInstanceStoredFirstKey_UsesItsKey() {
+        JwtSigningKey winner = key("winner", Instant.now());
+        when(signingKeyRepository.findByAlgorithmOrderByActivatesAtAsc("ES256"))
+                .thenReturn(List.of(), List.of(winner));
+        when(signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc("ES256")).thenReturn(Optional.empty());
+        when(signingKeyRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_jwt_signing_keys_rotation"));
+
+        signingKeyManager.init();
+
+        assertEquals(List.of("winner"), kids());
+    }
+
+    @Test
+    void init_KeyStoredSinceReload_IsNotDuplicated() {
+        JwtSigningKey stored = key("stored", Instant.now());
+        when(signingKeyRepository.findByAlgorithmOrderByActivatesAtAsc("ES256"))
+                .thenReturn(List.of(), List.of(stored));
+        when(signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc("ES256")).thenReturn(Optional.of(stored));
+
+        signingKeyManager.init();
+
+        verify(signingKeyRepository, never()).saveAndFlush(any());
+        assertEquals(List.of("stored"), kids());
+    }
+
+    @Test
+    void isEnabled_HmacAlgorithms_UseTheSharedSecret() {
+        for (String algorithm : List.of("HS256", "HS384", "hs512")) {
+            assertFalse(new SigningKeyManager(signingKeyRepository, transactionManager, algorithm,
+                    ACCESS_TOKEN_LIFETIME_MILLIS, ACTIVATION_DELAY_MILLIS, "").isEnabled());
+        }
+    }
+
+    @Test
+    void isEnabled_AsymmetricAlgorithms_UseKeyPairs() {
+        for (String algorithm : List.of("RS384", "PS256", "ES512", "EdDSA")) {
+            SigningKeyManager manager = new SigningKeyManager(signingKeyRepository, transactionManager, algorithm,
+                    ACCESS_TOKEN_LIFETIME_MILLIS, ACTIVATION_DELAY_MILLIS, "");
+            assertTrue(manager.isEnabled());
+            assertEquals(algorithm, manager.getAlgorithmId());
+        }
+    }
+
+    @Test
+    void constructor_UnknownAlgorithm_FailsStartup() {
+        assertThrows(IllegalStateException.class, () -> new SigningKeyManager(signingKeyRepository,
+                transactionManager, "HS1024", ACCESS_TOKEN_LIFETIME_MILLIS, ACTIVATION_DELAY_MILLIS, ""));
+    }
+
+    @Test
+    void reload_EncryptedKey_DecryptsWithConfiguredKek() {
+        SigningKeyManager encrypting = new SigningKeyManager(signingKeyRepository, transactionManager, "ES256",
+                ACCESS_TOKEN_LIFETIME_MILLIS, ACTIVATION_DELAY_MILLIS, KEY_ENCRYPTION_KEY);
+        when(signingKeyRepository.findFirstByAlgorithmOrderByRotationDesc("ES256")).thenReturn(Optional.empty());
+        encrypting.rotate();
+        ArgumentCaptor<JwtSigningKey> saved = ArgumentCaptor.forClass(JwtSigningKey.class);
+        verify(signingKeyRepository).saveAndFlush(saved.capture());
+        JwtSigningKey stored = saved.getValue();
+        assertTrue(stored.isPrivateKeyEncrypted());
+        when(signingKeyRepository.findByAlgorithmOrderByActivatesAtAsc("ES256")).thenReturn(List.of(stored));
+
+        encrypting.reload();
+
+        assertEquals(stored.getKid(), encrypting.getKeyRing().current(Instant.now()).kid());
+        assertThrows(IllegalStateException.class, () -> signingKeyManager.reload());
+    }
+
+    @Test
+    void constructor_MalformedKek_FailsStartup() {
+        assertThrows(IllegalStateException.class, () -> new SigningKeyManager(signingKeyRepository,
+                transactionManager, "ES256", ACCESS_TOKEN_LIFETIME_MILLIS, ACTIVATION_DELAY_MILLIS, "c2hvcnQ="));
+    }
+
+    private List<String> kids() {
+        return signingKeyManager.getKeyRing().getEntries().stream().map(SigningKeyRing.Entry::kid).toList();
+    }
+
+    private static JwtSigningKey key(String kid, Instant activatesAt) {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        return new JwtSigningKey(kid, 0, "ES256", keyPair.getPublic().getAlgorithm(),
+                keyPair.getPrivate().getEncoded(), false, keyPair.getPublic().getEncoded(), activatesAt);
+    }
+}
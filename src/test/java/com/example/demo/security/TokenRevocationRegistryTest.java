@@ -0,0 +1,109 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.TokenVersionFloor;
+import com.example.demo.repository.RevokedTokenRepository;
+import com.example.demo.repository.TokenVersionFloorRepository;
+import com.example.demo.util.VerifiedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    private static final long ACCESS_TOKEN_LIFETIME_MILLIS = Duration.ofMinutes(15).toMillis();
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private TokenVersionFloorRepository tokenVersionFloorRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry(revokedTokenRepository, tokenVersionFloorRepository,
+                transactionManager, ACCESS_TOKEN_LIFETIME_MILLIS);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revokeAllForUser_InsideTransaction_AppliesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.revokeAllForUser(7L, 3);
+
+        assertFalse(registry.isRevoked(token(7L, 2L)));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(registry.isRevoked(token(7L, 2L)));
+        assertFalse(registry.isRevoked(token(7L, 3L)));
+    }
+
+    @Test
+    void revokeAllForUser_RolledBack_LeavesTokensValid() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.revokeAllForUser(7L, 3);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(registry.isRevoked(token(7L, 2L)));
+    }
+
+    @Test
+    void scheduledReload_FloorWrittenByOtherInstance_IsPickedUp() {
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(10));
+        when(tokenVersionFloorRepository.findActive(any()))
+                .thenReturn(List.of(), List.of(new TokenVersionFloor(7L, 3, expiresAt)));
+        registry.load();
+        assertFalse(registry.isRevoked(token(7L, 2L)));
+
+        registry.scheduledReload();
+
+        assertTrue(registry.isRevoked(token(7L, 2L)));
+    }
+
+    @Test
+    void scheduledReload_OlderFloorInDatabase_KeepsHigherFloor() {
+        registry.revokeAllForUser(7L, 5);
+        when(tokenVersionFloorRepository.findActive(any()))
+                .thenReturn(List.of(new TokenVersionFloor(7L, 3, Instant.now().plus(Duration.ofMinutes(10)))));
+
+        registry.scheduledReload();
+
+        assertTrue(registry.isRevoked(token(7L, 4L)));
+    }
+
+    private static VerifiedToken token(Long userId, Long version) {
+        Date now = new Date();
+        return new VerifiedToken("jti-" + version, "alice", now, new Date(now.getTime() + ACCESS_TOKEN_LIFETIME_MILLIS),
+                List.of("ROLE_USER"), userId, "USER", version);
+    }
+}
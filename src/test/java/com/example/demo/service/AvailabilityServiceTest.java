@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+    
+    private static final int REGISTERED_USERS = 2_000;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private RegisteredNamesFilter registeredNames;
+    private AvailabilityService availabilityService;
+    
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(userRepository.streamUsernamesNormalized())
+                .thenAnswer(invocation -> IntStream.range(0, REGISTERED_USERS).mapToObj(i -> "user" + i));
+        lenient().when(userRepository.streamEmailsNormalized())
+                .thenAnswer(invocation -> IntStream.range(0, REGISTERED_USERS).mapToObj(i -> "user" + i + "@example.com"));
+        registeredNames = new RegisteredNamesFilter(userRepository, transactionManager, true, REGISTERED_USERS, 0.01);
+        availabilityService = new AvailabilityService(userRepository, registeredNames);
+    }
+    
+    @Test
+    void isUsernameAvailable_FilterNotLoaded_AsksDatabase() {
+        when(userRepository.existsByUsernameNormalized("newuser")).thenReturn(false);
+        
+        assertTrue(availabilityService.isUsernameAvailable("NewUser"));
+        
+        verify(userRepository).existsByUsernameNormalized("newuser");
+        assertEquals(1, availabilityService.getFalsePositiveCount());
+    }
+    
+    @Test
+    void isUsernameAvailable_RegisteredNames_AreNeverReportedFree() {
+        registeredNames.load();
+        when(userRepository.existsByUsernameNormalized(anyString())).thenReturn(true);
+        when(userRepository.existsByEmailNormalized(anyString())).thenReturn(true);
+        
+        for (int i = 0; i < REGISTERED_USERS; i++) {
+            assertFalse(availabilityService.isUsernameAvailable("User" + i));
+            assertFalse(availabilityService.isEmailAvailable("user" + i + "@Example.com"));
+        }
+        
+        assertEquals(2L * REGISTERED_USERS, availabilityService.getTakenCount());
+        assertEquals(0, availabilityService.getFilteredCount());
+    }
+    
+    @Test
+    void isUsernameAvailable_FreeNames_MostlyAnsweredWithoutQuery() {
+        registeredNames.load();
+        when(userRepository.existsByUsernameNormalized(anyString())).thenReturn(false);
+        
+        int checks = 10_000;
+        for (int i = 0; i < checks; i++) {
+            assertTrue(availabilityService.isUsernameAvailable("free" + i));
+        }
+        
+        assertEquals(checks, availabilityService.getFilteredCount() + availabilityService.getFalsePositiveCount());
+        verify(userRepository, times((int) availabilityService.getFalsePositiveCount()))
+                .existsByUsernameNormalized(anyString());
+        double observed = availabilityService.getObservedFalsePositiveRate();
+        assertTrue(observed < 0.02, "observed false-positive rate " + observed);
+    }
+    
+    @Test
+    void isUsernameAvailable_NameRegisteredElsewhere_SeenAfterRebuild() {
+        registeredNames.load();
+        assertTrue(availabilityService.isUsernameAvailable("remoteuser"));
+        
+        // Another instance registered the name; only the rebuild can pick it up
+        when(userRepository.streamUsernamesNormalized()).thenAnswer(invocation -> Stream.of("remoteuser"));
+        when(userRepository.streamEmailsNormalized()).thenAnswer(invocation -> Stream.of("remote@example.com"));
+        when(userRepository.existsByUsernameNormalized("remoteuser")).thenReturn(true);
+        registeredNames.scheduledReload();
+        
+        assertFalse(availabilityService.isUsernameAvailable("remoteuser"));
+        assertTrue(availabilityService.isUsernameAvailable("user1"));
+    }
+    
+    @Test
+    void isEmailAvailable_PrecheckDisabled_AlwaysAsksDatabase() {
+        RegisteredNamesFilter disabled = new RegisteredNamesFilter(userRepository, transactionManager, false,
+                REGISTERED_USERS, 0.01);
+        AvailabilityService service = new AvailabilityService(userRepository, disabled);
+        when(userRepository.existsByEmailNormalized("taken@example.com")).thenReturn(true);
+        
+        assertFalse(service.isEmailAvailable("Taken@Example.com"));
+        
+        assertEquals(0, service.getFalsePositiveCount());
+        assertEquals(1, service.getTakenCount());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, 60000L, 100);
+
+        testUser = new User("testuser", "test@example.com", "encodedPassword");
+        testUser.setId(1L);
+    }
+
+    @Test
+    void rotate_IssuedToken_ReturnsNewTokenWithoutLookup() {
+        String issued = refreshTokenService.issue(testUser);
+        when(refreshTokenRepository.markUsed(anyString(), any(Instant.class))).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(issued);
+
+        assertSame(testUser, rotation.user());
+        assertNotEquals(issued, rotation.refreshToken());
+        assertEquals(1, refreshTokenService.getCacheHits());
+        verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+        verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_SameTokenTwice_RevokesFamily() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        String issued = refreshTokenService.issue(testUser);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        stored.setUsedAt(Instant.now());
+        when(refreshTokenRepository.markUsed(anyString(), any(Instant.class))).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        refreshTokenService.rotate(issued);
+        RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotate(issued));
+
+        assertEquals(RefreshTokenException.Reason.REUSED, exception.getReason());
+        verify(refreshTokenRepository).revokeFamily(eq(stored.getFamilyId()), any(Instant.class));
+    }
+
+    @Test
+    void rotate_ConcurrentlyConsumedToken_RevokesFamily() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        String issued = refreshTokenService.issue(testUser);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        stored.setUsedAt(Instant.now());
+        when(refreshTokenRepository.markUsed(anyString(), any(Instant.class))).thenReturn(0);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotate(issued));
+
+        assertEquals(RefreshTokenException.Reason.REUSED, exception.getReason());
+        verify(refreshTokenRepository).revokeFamily(any(UUID.class), any(Instant.class));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void rotate_TokenRevokedByLogout_ThrowsRevokedWithoutReuse() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        String issued = refreshTokenService.issue(testUser);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        refreshTokenService.revoke(issued);
+        stored.setRevokedAt(Instant.now());
+        RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotate(issued));
+
+        assertEquals(RefreshTokenException.Reason.REVOKED, exception.getReason());
+        verify(refreshTokenRepository, times(1)).revokeFamily(eq(stored.getFamilyId()), any(Instant.class));
+        verify(refreshTokenRepository, never()).markUsed(anyString(), any(Instant.class));
+    }
+
+    @Test
+    void rotate_CachedTokenRevokedOnAnotherInstance_ThrowsRevoked() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        String issued = refreshTokenService.issue(testUser);
+        verify(refreshTokenRepository).save(saved.capture());
+        RefreshToken stored = saved.getValue();
+        stored.setRevokedAt(Instant.now());
+        when(refreshTokenRepository.markUsed(anyString(), any(Instant.class))).thenReturn(0);
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotate(issued));
+
+        assertEquals(RefreshTokenException.Reason.REVOKED, exception.getReason());
+        verify(refreshTokenRepository, never()).revokeFamily(any(UUID.class), any(Instant.class));
+    }
+
+    @Test
+    void rotate_PasswordChangedSinceIssue_RejectsToken() {
+        String issued = refreshTokenService.issue(testUser);
+        testUser.incrementTokenVersion();
+        when(refreshTokenRepository.markUsed(anyString(), any(Instant.class))).thenReturn(1);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotate(issued));
+
+        assertEquals(RefreshTokenException.Reason.REVOKED, exception.getReason());
+    }
+
+    @Test
+    void issue_CacheFullOfExpiredTokens_EvictsThem() {
+        RefreshTokenService service = new RefreshTokenService(refreshTokenRepository, userRepository, 0L, 2);
+
+        service.issue(testUser);
+        service.issue(testUser);
+        service.issue(testUser);
+
+        assertEquals(1, service.getCacheSize());
+    }
+
+    @Test
+    void issue_CacheFullOfActiveTokens_SkipsCaching() {
+        RefreshTokenService service = new RefreshTokenService(refreshTokenRepository, userRepository, 60000L, 2);
+
+        service.issue(testUser);
+        service.issue(testUser);
+        String uncached = service.issue(testUser);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertEquals(2, service.getCacheSize());
+        assertThrows(RefreshTokenException.class, () -> service.rotate(uncached));
+        assertEquals(1, service.getCacheMisses());
+    }
+
+    @Test
+    void rotate_UnknownToken_ThrowsInvalid() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        RefreshTokenException exception = assertThrows(RefreshTokenException.class,
+                () -> refreshTokenService.rotate("unknown"));
+
+        assertEquals(RefreshTokenException.Reason.INVALID, exception.getReason());
+        verify(refreshTokenRepository, never()).markUsed(anyString(), any(Instant.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserFilter;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(showSql = false)
+class UserExportServiceTest {
+
+    // More than the cursor fetch size of 500, so the export spans several fetches
+    private static final int USER_COUNT = 1201;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userRepository, objectMapper);
+        userRepository.saveAllAndFlush(IntStream.range(0, USER_COUNT)
+                .mapToObj(i -> {
+                    User user = new User("user" + i, "user" + i + "@example.com", "encodedPassword");
+                    user.setRole(i % 3 == 0 ? User.Role.ADMIN : User.Role.USER);
+                    return user;
+                })
+                .toList());
+    }
+
+    @Test
+    void exportUsers_MoreUsersThanFetchSize_WritesEveryUserInIdOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userExportService.exportUsers(new UserFilter(), out);
+
+        List<JsonNode> lines = lines(out);
+        assertEquals(USER_COUNT, count);
+        assertEquals(USER_COUNT, lines.size());
+        for (int i = 1; i < lines.size(); i++) {
+            assertTrue(lines.get(i).path("id").asLong() > lines.get(i - 1).path("id").asLong());
+        }
+        assertEquals("user1200", lines.get(USER_COUNT - 1).path("username").asText());
+        assertFalse(lines.get(0).has("password"));
+    }
+
+    @Test
+    void exportUsers_RoleFilter_WritesOnlyMatchingUsers() throws IOException {
+        UserFilter filter = new UserFilter();
+        filter.setRole(User.Role.ADMIN);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = userExportService.exportUsers(filter, out);
+
+        assertEquals(401, count);
+        assertTrue(lines(out).stream().allMatch(line -> "ADMIN".equals(line.path("role").asText())));
+    }
+
+    private List<JsonNode> lines(ByteArrayOutputStream out) throws IOException {
+        String body = out.toString(StandardCharsets.UTF_8);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
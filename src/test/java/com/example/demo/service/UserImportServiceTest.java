@@ -0,0 +1,202 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserImportResult;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RegisteredNamesFilter registeredNames;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userRepository, passwordEncoder, transactionManager,
+                VALIDATOR, new ObjectMapper(), registeredNames);
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 500);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        lenient().when(userRepository.findExistingUsernames(anyList())).thenReturn(List.of());
+        lenient().when(userRepository.findExistingEmails(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void importUsers_Csv_SkipsHeaderAndImportsRows() throws IOException {
+        UserImportResult result = userImportService.importUsers(body(
+                "Username,Email,Password,Role",
+                "alice,alice@example.com,password123",
+                "bob,bob@example.com,password123,ADMIN"), UserImportService.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+        List<User> saved = savedUsers();
+        assertEquals("alice", saved.get(0).getUsername());
+        assertEquals("hash:password123", saved.get(0).getPassword());
+        assertEquals(User.Role.USER, saved.get(0).getRole());
+        assertEquals(User.Role.ADMIN, saved.get(1).getRole());
+        verify(registeredNames).add("bob", "bob@example.com");
+    }
+
+    @Test
+    void importUsers_Ndjson_ImportsRows() throws IOException {
+        UserImportResult result = userImportService.importUsers(body(
+                "{\"username\":\"alice\",\"email\":\"alice@example.com\",\"password\":\"password123\"}",
+                "",
+                "{\"username\":\"bob\",\"email\":\"bob@example.com\",\"password\":\"password123\",\"role\":\"ADMIN\"}"),
+                UserImportService.Format.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+        assertEquals(User.Role.ADMIN, savedUsers().get(1).getRole());
+    }
+
+    @Test
+    void importUsers_MalformedAndInvalidLines_AreRejected() throws IOException {
+        UserImportResult result = userImportService.importUsers(body(
+                "alice,alice@example.com",
+                "bob,not-an-email,password123",
+                "carol,carol@example.com,password123"), UserImportService.Format.CSV);
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertRejected(result, 0, 1, "Malformed line");
+        assertRejected(result, 1, 2, "Email should be valid");
+    }
+
+    @Test
+    void importUsers_MalformedJson_IsRejected() throws IOException {
+        UserImportResult result = userImportService.importUsers(body("{\"username\":"),
+                UserImportService.Format.NDJSON);
+
+        assertEquals(0, result.getImported());
+        assertRejected(result, 0, 1, "Malformed line");
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importUsers_DuplicatesWithinImport_AreRejected() throws IOException {
+        UserImportResult result = userImportService.importUsers(body(
+                "alice,alice@example.com,password123",
+                "ALICE,other@example.com,password123",
+                "bob,Alice@Example.com,password123"), UserImportService.Format.CSV);
+
+        assertEquals(1, result.getImported());
+        assertRejected(result, 0, 2, "Duplicate username in import");
+        assertRejected(result, 1, 3, "Duplicate email in import");
+    }
+
+    @Test
+    void importUsers_NamesAlreadyRegistered_AreRejected() throws IOException {
+        when(userRepository.findExistingUsernames(anyList())).thenReturn(List.of("alice"));
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of("bob@example.com"));
+
+        UserImportResult result = userImportService.importUsers(body(
+                "alice,alice@example.com,password123",
+                "bob,bob@example.com,password123",
+                "carol,carol@example.com,password123"), UserImportService.Format.CSV);
+
+        assertEquals(1, result.getImported());
+        assertRejected(result, 0, 1, "Username is already taken");
+        assertRejected(result, 1, 2, "Email is already registered");
+        assertEquals(List.of("carol"), savedUsers().stream().map(User::getUsername).toList());
+    }
+
+    @Test
+    void importUsers_SmallChunks_QueryUniquenessPerChunk() throws IOException {
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+
+        UserImportResult result = userImportService.importUsers(body(
+                "alice,alice@example.com,password123",
+                "bob,bob@example.com,password123",
+                "carol,carol@example.com,password123"), UserImportService.Format.CSV);
+
+        assertEquals(3, result.getImported());
+        verify(userRepository, times(2)).findExistingUsernames(anyList());
+        verify(userRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void importUsers_ConflictOnBatchInsert_FallsBackToSingleRows() throws IOException {
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if ("bob".equals(user.getUsername())) {
+                throw new DataIntegrityViolationException("duplicate",
+                        new ConstraintViolationException("duplicate", new SQLException("duplicate"),
+                                User.USERNAME_NORMALIZED_CONSTRAINT));
+            }
+            return user;
+        });
+
+        UserImportResult result = userImportService.importUsers(body(
+                "alice,alice@example.com,password123",
+                "bob,bob@example.com,password123",
+                "carol,carol@example.com,password123"), UserImportService.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertRejected(result, 0, 2, "Username is already taken");
+        verify(userRepository, times(3)).save(any(User.class));
+        verify(registeredNames).add("alice", "alice@example.com");
+        verify(registeredNames, never()).add("bob", "bob@example.com");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<User> savedUsers() {
+        ArgumentCaptor<List<User>> captor = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static void assertRejected(UserImportResult result, int index, int line, String reason) {
+        UserImportResult.RowError error = result.getErrors().get(index);
+        assertEquals(line, error.getLine());
+        assertEquals(reason, error.getReason());
+    }
+
+    private static InputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
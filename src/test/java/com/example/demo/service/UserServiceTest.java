@@ -1,23 +1,37 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.RegisterRequest;
+import com.example.demo.dto.UserFilter;
+import com.example.demo.dto.UserSummary;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.TokenRevocationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +43,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(60000L, 100);
+    
+    @Mock
+    private RegisteredNamesFilter registeredNames;
+    
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+    
     @InjectMocks
     private UserService userService;
     
@@ -53,39 +76,91 @@ class UserServiceTest {
     
     @Test
     void loadUserByUsername_UserExists_ReturnsUserDetails() {
-        when(userRepository.findByUsernameOrEmail("testuser", "testuser"))
+        when(userRepository.findByUsernameNormalized("testuser"))
                 .thenReturn(Optional.of(testUser));
         
         UserDetails result = userService.loadUserByUsername("testuser");
         
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
-        verify(userRepository).findByUsernameOrEmail("testuser", "testuser");
+        verify(userRepository).findByUsernameNormalized("testuser");
     }
     
     @Test
     void loadUserByUsername_UserNotExists_ThrowsException() {
-        when(userRepository.findByUsernameOrEmail("nonexistent", "nonexistent"))
+        when(userRepository.findByUsernameNormalized("nonexistent"))
                 .thenReturn(Optional.empty());
         
         assertThrows(UsernameNotFoundException.class, 
                 () -> userService.loadUserByUsername("nonexistent"));
     }
     
+    @Test
+    void loadUserByUsername_RepeatedLookup_ServedFromCache() {
+        when(userRepository.findByUsernameNormalized("testuser"))
+                .thenReturn(Optional.of(testUser));
+        
+        userService.loadUserByUsername("testuser");
+        userService.loadUserByUsername("testuser");
+        
+        verify(userRepository, times(1)).findByUsernameNormalized("testuser");
+        assertEquals(1L, userService.getUserCacheStats().get("hits"));
+        assertEquals(1L, userService.getUserCacheStats().get("misses"));
+    }
+    
+    @Test
+    void setUserEnabled_CachedUser_EvictsCacheEntry() {
+        when(userRepository.findByUsernameNormalized("testuser"))
+                .thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        
+        userService.loadUserByUsername("testuser");
+        userService.setUserEnabled(1L, false);
+        userService.loadUserByUsername("testuser");
+        
+        verify(userRepository, times(2)).findByUsernameNormalized("testuser");
+        assertEquals(1L, testUser.getTokenVersion());
+        verify(revocationRegistry).revokeAllForUser(1L, 1L);
+    }
+    
+    @Test
+    void updatePassword_RehashedOnLogin_StoresHashWithoutBumpingVersion() {
+        when(userRepository.findByUsernameNormalized("testuser"))
+                .thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        
+        userService.updatePassword(testUser, "{bcrypt}rehashed");
+        
+        assertEquals("{bcrypt}rehashed", testUser.getPassword());
+        assertEquals(0L, testUser.getTokenVersion());
+        verify(userDetailsCache).evict(1L);
+    }
+    
+    @Test
+    void loadUserByUsername_EmailInput_UsesEmailIndexOnly() {
+        when(userRepository.findByEmailNormalized("test@example.com"))
+                .thenReturn(Optional.of(testUser));
+        
+        UserDetails result = userService.loadUserByUsername("Test@Example.com");
+        
+        assertEquals("testuser", result.getUsername());
+        verify(userRepository, never()).findByUsernameNormalized(anyString());
+    }
+    
     @Test
     void registerUser_ValidRequest_ReturnsUser() {
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
         
         User result = userService.registerUser(registerRequest);
         
         assertNotNull(result);
-        verify(userRepository).existsByUsername("newuser");
-        verify(userRepository).existsByEmail("new@example.com");
+        verify(userRepository, never()).existsByUsernameNormalized(anyString());
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
         verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(registeredNames).add("testuser", "test@example.com");
     }
     
     @Test
@@ -100,23 +175,41 @@ class UserServiceTest {
     
     @Test
     void registerUser_UsernameExists_ThrowsException() {
-        when(userRepository.existsByUsername("newuser")).thenReturn(true);
+        when(registeredNames.mightContainUsername("newuser")).thenReturn(true);
+        when(userRepository.existsByUsernameNormalized("newuser")).thenReturn(true);
         
         RuntimeException exception = assertThrows(RuntimeException.class, 
                 () -> userService.registerUser(registerRequest));
         
         assertEquals("Username is already taken", exception.getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
     }
     
     @Test
     void registerUser_EmailExists_ThrowsException() {
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(true);
+        when(registeredNames.mightContainUsername("newuser")).thenReturn(true);
+        when(registeredNames.mightContainEmail("new@example.com")).thenReturn(true);
+        when(userRepository.existsByUsernameNormalized("newuser")).thenReturn(false);
+        when(userRepository.existsByEmailNormalized("new@example.com")).thenReturn(true);
+        
+        RuntimeException exception = assertThrows(RuntimeException.class, 
+                () -> userService.registerUser(registerRequest));
+        
+        assertEquals("Email is already registered", exception.getMessage());
+    }
+    
+    @Test
+    void registerUser_ConstraintViolation_ReportsConflictingField() {
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate"),
+                        User.EMAIL_NORMALIZED_CONSTRAINT)));
         
         RuntimeException exception = assertThrows(RuntimeException.class, 
                 () -> userService.registerUser(registerRequest));
         
         assertEquals("Email is already registered", exception.getMessage());
+        verify(registeredNames, never()).add(anyString(), anyString());
     }
     
     @Test
@@ -137,4 +230,44 @@ class UserServiceTest {
         
         assertFalse(result.isPresent());
     }
+    
+    @Test
+    void listUsers_MoreRowsThanLimit_ReturnsPageAndCursor() {
+        when(userRepository.findPageAfter(eq(10L), isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+                .thenReturn(summaries(11, 12, 13));
+        
+        CursorPage<UserSummary> page = userService.listUsers(new UserFilter(), 10L, 2);
+        
+        assertEquals(List.of(11L, 12L), page.getItems().stream().map(UserSummary::getId).toList());
+        assertEquals(12L, page.getNextCursor());
+    }
+    
+    @Test
+    void listUsers_LastPage_ReturnsNoCursor() {
+        when(userRepository.findPageAfter(eq(0L), isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 3))))
+                .thenReturn(summaries(1, 2));
+        
+        CursorPage<UserSummary> page = userService.listUsers(new UserFilter(), null, 2);
+        
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void listUsers_LimitOutOfRange_IsClamped() {
+        when(userRepository.findPageAfter(anyLong(), any(), any(), any(), any(), any())).thenReturn(List.of());
+        
+        userService.listUsers(new UserFilter(), null, 100_000);
+        userService.listUsers(new UserFilter(), null, 0);
+        
+        verify(userRepository).findPageAfter(eq(0L), isNull(), isNull(), isNull(), isNull(),
+                eq(PageRequest.of(0, UserService.MAX_PAGE_SIZE + 1)));
+        verify(userRepository).findPageAfter(eq(0L), isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 2)));
+    }
+    
+    private static List<UserSummary> summaries(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> new UserSummary(id, "user" + id, "user" + id + "@example.com", "USER", true, null))
+                .toList();
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+    
+    private static final int ENTRIES = 10_000;
+    private static final double TARGET_RATE = 0.01;
+    
+    @Test
+    void mightContain_AddedEntries_NeverFalseNegative() {
+        BloomFilter filter = new BloomFilter(ENTRIES, TARGET_RATE);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "false negative for entry " + i);
+        }
+        assertEquals(ENTRIES, filter.getInsertions());
+    }
+    
+    @Test
+    void mightContain_AtExpectedLoad_StaysNearTargetFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(ENTRIES, TARGET_RATE);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.add("taken" + i);
+        }
+        
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("free" + i)) {
+                falsePositives++;
+            }
+        }
+        
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < TARGET_RATE * 2, "observed false-positive rate " + observed);
+        assertEquals(TARGET_RATE, filter.expectedFalsePositiveRate(), TARGET_RATE / 2);
+    }
+    
+    @Test
+    void mightContain_EmptyFilter_ContainsNothing() {
+        BloomFilter filter = new BloomFilter(ENTRIES, TARGET_RATE);
+        
+        assertFalse(filter.mightContain("alice"));
+        assertFalse(filter.mightContain(""));
+        assertEquals(0, filter.expectedFalsePositiveRate());
+    }
+    
+    @Test
+    void constructor_RateOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(ENTRIES, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(ENTRIES, 1));
+    }
+}
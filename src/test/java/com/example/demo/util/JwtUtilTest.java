@@ -1,11 +1,26 @@
 package com.example.demo.util;
 
 import com.example.demo.entity.User;
+import com.example.demo.repository.RevokedTokenRepository;
+import com.example.demo.repository.TokenVersionFloorRepository;
+import com.example.demo.security.SigningKeyManager;
+import com.example.demo.security.TokenRevocationRegistry;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class JwtUtilTest {
     
@@ -17,6 +32,7 @@ class JwtUtilTest {
         jwtUtil = new JwtUtil();
         ReflectionTestUtils.setField(jwtUtil, "secret", "mySecretKeyForJWTTokenGenerationThatShouldBeAtLeast256BitsLong");
         ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        jwtUtil.init();
         
         testUser = new User();
         testUser.setUsername("testuser");
@@ -60,6 +76,206 @@ class JwtUtilTest {
         assertFalse(isValid);
     }
     
+    @Test
+    void verifyToken_ValidToken_ReturnsClaims() {
+        String token = jwtUtil.generateToken(testUser);
+        
+        Optional<VerifiedToken> verified = jwtUtil.verifyToken(token);
+        
+        assertTrue(verified.isPresent());
+        assertEquals("testuser", verified.get().getSubject());
+        assertNotNull(verified.get().getIssuedAt());
+        assertNotNull(verified.get().getExpiration());
+        assertEquals(List.of("ROLE_USER"), verified.get().getRoles());
+    }
+    
+    @Test
+    void verifyToken_UserEntity_CarriesIdentityClaims() {
+        testUser.setId(42L);
+        testUser.setRole(User.Role.ADMIN);
+        testUser.setTokenVersion(3L);
+        
+        VerifiedToken verified = jwtUtil.verifyToken(jwtUtil.generateToken(testUser)).orElseThrow();
+        
+        assertEquals(42L, verified.getUserId());
+        assertEquals("ADMIN", verified.getRole());
+        assertEquals(3L, verified.getVersion());
+        assertEquals(List.of("ROLE_ADMIN"), verified.getRoles());
+    }
+    
+    @Test
+    void verifyToken_InvalidToken_ReturnsEmpty() {
+        assertTrue(jwtUtil.verifyToken("invalid.token.here").isEmpty());
+    }
+    
+    @Test
+    void verifyToken_ExpiredToken_ReturnsEmpty() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken(testUser);
+        
+        assertTrue(jwtUtil.verifyToken(token).isEmpty());
+    }
+    
+    @Test
+    void rotateSecret_OldTokensNoLongerVerify() {
+        String token = jwtUtil.generateToken(testUser);
+        
+        jwtUtil.rotateSecret("anotherSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong");
+        
+        assertFalse(jwtUtil.validateToken(token));
+        assertTrue(jwtUtil.validateToken(jwtUtil.generateToken(testUser)));
+    }
+    
+    @Test
+    void verifyToken_CacheEnabled_RepeatTokenServedFromCache() {
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheSize", 16);
+        jwtUtil.init();
+        String token = jwtUtil.generateToken(testUser);
+        
+        jwtUtil.verifyToken(token);
+        Optional<VerifiedToken> verified = jwtUtil.verifyToken(token);
+        
+        assertTrue(verified.isPresent());
+        assertEquals(1L, jwtUtil.getVerifiedTokenCache().getHits());
+    }
+    
+    @Test
+    void verifyToken_CacheEnabled_RotationInvalidatesCachedTokens() {
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheSize", 16);
+        jwtUtil.init();
+        String token = jwtUtil.generateToken(testUser);
+        jwtUtil.verifyToken(token);
+        
+        jwtUtil.rotateSecret("anotherSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLong");
+        
+        assertTrue(jwtUtil.verifyToken(token).isEmpty());
+    }
+    
+    @Test
+    void verifiedTokenCache_ExpiredEntry_NotServed() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        byte[] digest = VerifiedTokenCache.digest("some.raw.token");
+        cache.put(digest, new VerifiedToken("testuser", new Date(0), new Date(1000), List.of()), cache.generation());
+        
+        assertNotNull(cache.get(digest, 999));
+        assertNull(cache.get(digest, 1000));
+    }
+    
+    @Test
+    void verifiedTokenCache_VerifiedBeforeClear_NotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(16);
+        byte[] digest = VerifiedTokenCache.digest("some.raw.token");
+        long generation = cache.generation();
+        
+        // A rotation lands between verifying with the old key and caching the result
+        cache.clear();
+        cache.put(digest, new VerifiedToken("testuser", new Date(0), new Date(1000), List.of()), generation);
+        
+        assertNull(cache.get(digest, 999));
+    }
+    
+    @Test
+    void verifiedTokenCache_NonAsciiTokens_HaveDistinctDigests() {
+        assertFalse(Arrays.equals(VerifiedTokenCache.digest("a.b.\u00e9"), VerifiedTokenCache.digest("a.b.\u00e8")));
+    }
+    
+    @Test
+    void verify_RevokedJti_RejectedEvenWhenCached() {
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheSize", 16);
+        jwtUtil.init();
+        TokenRevocationRegistry registry = revocationRegistry();
+        jwtUtil.setRevocationRegistry(registry);
+        String token = jwtUtil.generateToken(testUser);
+        String other = jwtUtil.generateToken(testUser);
+        
+        registry.revoke(jwtUtil.verifyToken(token).orElseThrow());
+        
+        assertEquals(TokenVerification.Failure.REVOKED, jwtUtil.verify(token).getFailure());
+        assertTrue(jwtUtil.verify(other).isValid());
+    }
+    
+    @Test
+    void verify_TokenBelowUserVersionFloor_Rejected() {
+        TokenRevocationRegistry registry = revocationRegistry();
+        jwtUtil.setRevocationRegistry(registry);
+        testUser.setId(1L);
+        String token = jwtUtil.generateToken(testUser);
+        
+        testUser.incrementTokenVersion();
+        registry.revokeAllForUser(1L, testUser.getTokenVersion());
+        // Issued within the same second as the revocation, but with the new version
+        String reissued = jwtUtil.generateToken(testUser);
+        
+        assertEquals(TokenVerification.Failure.REVOKED, jwtUtil.verify(token).getFailure());
+        assertTrue(jwtUtil.verify(reissued).isValid());
+    }
+    
+    private TokenRevocationRegistry revocationRegistry() {
+        return new TokenRevocationRegistry(mock(RevokedTokenRepository.class), mock(TokenVersionFloorRepository.class),
+                mock(PlatformTransactionManager.class), 86400000L);
+    }
+    
+    @Test
+    void verify_AsymmetricKeys_OldTokensSurviveRotation() {
+        SigningKeyRing ring = new SigningKeyRing();
+        SigningKeyRing.Entry first = keyEntry("k1", Instant.now().minusSeconds(60));
+        ring.replace(List.of(first));
+        useKeyRing(ring);
+        String before = jwtUtil.generateToken(testUser);
+        
+        SigningKeyRing.Entry second = keyEntry("k2", Instant.now().minusSeconds(1));
+        ring.replace(List.of(first, second));
+        String after = jwtUtil.generateToken(testUser);
+        
+        assertTrue(jwtUtil.verify(before).isValid());
+        assertTrue(jwtUtil.verify(after).isValid());
+        assertEquals("k2", Jwts.parser().keyLocator(ring).build().parseSignedClaims(after).getHeader().getKeyId());
+        List<?> keys = (List<?>) jwtUtil.getJwks().orElseThrow().get("keys");
+        assertEquals(2, keys.size());
+    }
+    
+    @Test
+    void generateToken_PendingKey_NotUsedBeforeActivation() {
+        SigningKeyRing ring = new SigningKeyRing();
+        ring.replace(List.of(keyEntry("active", Instant.now().minusSeconds(60)),
+                keyEntry("pending", Instant.now().plusSeconds(600))));
+        useKeyRing(ring);
+        
+        String token = jwtUtil.generateToken(testUser);
+        
+        assertEquals("active", Jwts.parser().keyLocator(ring).build().parseSignedClaims(token).getHeader().getKeyId());
+    }
+    
+    @Test
+    void getJwks_HmacMode_Empty() {
+        assertTrue(jwtUtil.getJwks().isEmpty());
+    }
+    
+    private void useKeyRing(SigningKeyRing ring) {
+        SigningKeyManager manager = mock(SigningKeyManager.class);
+        when(manager.isEnabled()).thenReturn(true);
+        when(manager.getAlgorithmId()).thenReturn("ES256");
+        when(manager.getKeyRing()).thenReturn(ring);
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        jwtUtil.setSigningKeyManager(manager);
+        jwtUtil.init();
+    }
+    
+    private SigningKeyRing.Entry keyEntry(String kid, Instant activatesAt) {
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        return new SigningKeyRing.Entry(kid, Jwts.SIG.ES256, keyPair.getPrivate(), keyPair.getPublic(), activatesAt);
+    }
+    
+    @Test
+    void verify_JunkToken_RejectedByPrecheckAndCounted() {
+        TokenVerification verification = jwtUtil.verify("not a token");
+        
+        assertEquals(TokenVerification.Failure.MALFORMED, verification.getFailure());
+        assertEquals(1, jwtUtil.getPrecheckRejections(TokenPrecheck.Rejection.CHARACTERS));
+        assertSame(verification, jwtUtil.verify("still not a token"));
+    }
+    
     @Test
     void extractExpiration_ValidToken_ReturnsExpirationDate() {
         String token = jwtUtil.generateToken(testUser);
@@ -0,0 +1,62 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketStoreTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    private final TokenBucketStore store = new TokenBucketStore(64);
+    private final TokenBucketStore.Quota quota = TokenBucketStore.Quota.perSecond(3, 1.0);
+    
+    @Test
+    void tryConsume_BurstExhausted_RejectsUntilRefill() {
+        long now = 1000 * SECOND;
+        
+        long first = store.tryConsume("alice", quota, now);
+        assertEquals(2, TokenBucketStore.remaining(first, quota));
+        store.tryConsume("alice", quota, now);
+        long third = store.tryConsume("alice", quota, now);
+        assertEquals(0, TokenBucketStore.remaining(third, quota));
+        
+        long rejected = store.tryConsume("alice", quota, now);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND, -rejected);
+        assertTrue(store.tryConsume("alice", quota, now + SECOND) > 0);
+    }
+    
+    @Test
+    void tryConsume_KeysHaveSeparateBuckets() {
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            store.tryConsume("alice", quota, now);
+        }
+        
+        assertTrue(store.tryConsume("alice", quota, now) < 0);
+        assertTrue(store.tryConsume("bob", quota, now) > 0);
+    }
+    
+    @Test
+    void tryConsume_ManyMoreKeysThanSlots_StaysBounded() {
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(store.tryConsume("user" + i, quota, now) > 0);
+        }
+        
+        assertEquals(64, store.getMaxKeys());
+        assertTrue(store.getEvictions() > 0);
+    }
+    
+    @Test
+    void tryConsume_IdleBucketsReused_WithoutEviction() {
+        long now = 1000 * SECOND;
+        for (int i = 0; i < 10_000; i++) {
+            // Each key's bucket has refilled before the next one arrives
+            store.tryConsume("user" + i, quota, now + i * 4 * SECOND);
+        }
+        
+        assertEquals(0, store.getEvictions());
+    }
+}
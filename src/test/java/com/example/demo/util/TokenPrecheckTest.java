@@ -0,0 +1,45 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenPrecheckTest {
+    
+    private static final Set<String> HMAC = Set.of("HS256", "HS384", "HS512");
+    
+    @Test
+    void check_WellFormedToken_Passes() {
+        assertNull(TokenPrecheck.check(token("{\"alg\":\"HS256\"}"), 8192, HMAC));
+        assertNull(TokenPrecheck.check(token("{\"kid\":\"k1\", \"alg\" : \"HS512\"}"), 8192, HMAC));
+    }
+    
+    @Test
+    void check_BrokenStructure_RejectedWithReason() {
+        assertEquals(TokenPrecheck.Rejection.EMPTY, TokenPrecheck.check("", 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.TOO_LONG, TokenPrecheck.check(token("{\"alg\":\"HS256\"}"), 10, HMAC));
+        assertEquals(TokenPrecheck.Rejection.SEGMENTS, TokenPrecheck.check("abc.def", 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.SEGMENTS, TokenPrecheck.check("abc.def.ghi.jkl", 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.SEGMENTS, TokenPrecheck.check("abc.def.", 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.CHARACTERS, TokenPrecheck.check("abc.d+f.ghi", 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.HEADER, TokenPrecheck.check("abcde.def.ghi", 8192, HMAC));
+    }
+    
+    @Test
+    void check_UnexpectedAlgorithm_Rejected() {
+        assertEquals(TokenPrecheck.Rejection.ALGORITHM, TokenPrecheck.check(token("{\"alg\":\"none\"}"), 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.ALGORITHM, TokenPrecheck.check(token("{\"alg\":\"HS2560\"}"), 8192, HMAC));
+        assertEquals(TokenPrecheck.Rejection.ALGORITHM, TokenPrecheck.check(token("{\"typ\":\"JWT\"}"), 8192, HMAC));
+    }
+    
+    private static String token(String header) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString("{\"sub\":\"testuser\"}".getBytes(StandardCharsets.UTF_8))
+                + ".c2lnbmF0dXJl";
+    }
+}